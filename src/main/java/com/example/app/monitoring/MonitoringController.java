@@ -0,0 +1,84 @@
+package com.example.app.monitoring;
+
+import com.example.infra.jdbc.SqlBudgetGuard;
+import com.example.infra.jpa.HibernateStatisticsMonitor;
+import com.example.infra.monitoring.ApplicationReadiness;
+import com.example.infra.monitoring.RepositoryMetricsInterceptor;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+
+import javax.inject.Inject;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Handles requests for monitoring endpoints.
+ * <p/>
+ * Except for the readiness, the endpoints are accessible only from the local host (see spring-security.xml).
+ */
+@Controller
+@RequestMapping("monitoring")
+public class MonitoringController {
+
+    @Inject
+    HibernateStatisticsMonitor hibernateStatisticsMonitor;
+
+    @Inject
+    RepositoryMetricsInterceptor repositoryMetricsInterceptor;
+
+    @Inject
+    SqlBudgetGuard sqlBudgetGuard;
+
+    @Inject
+    ApplicationReadiness applicationReadiness;
+
+    /**
+     * Returns Hibernate statistics, connection pool statistics and task query statistics as JSON.
+     */
+    @RequestMapping(value = "statistics", method = RequestMethod.GET, produces = "application/json")
+    @ResponseBody
+    public Map<String, Object> statistics() {
+        Map<String, Object> statistics = new LinkedHashMap<>();
+        statistics.put("hibernate", hibernateStatisticsMonitor.getHibernateStatistics());
+        statistics.put("connectionPool", hibernateStatisticsMonitor.getConnectionPoolStatistics());
+        statistics.put("queries", hibernateStatisticsMonitor.getQueryStatistics());
+        return statistics;
+    }
+
+    /**
+     * Returns call count, error count, returned rows and latency percentiles per repository method as text.
+     */
+    @RequestMapping(value = "repositories", method = RequestMethod.GET, produces = "text/plain")
+    @ResponseBody
+    public String repositories() {
+        return repositoryMetricsInterceptor.report();
+    }
+
+    /**
+     * Returns the handlers that exceeded the per-request SQL budget most often as JSON.
+     */
+    @RequestMapping(value = "sqlBudget", method = RequestMethod.GET, produces = "application/json")
+    @ResponseBody
+    public List<Map<String, Object>> sqlBudget() {
+        return sqlBudgetGuard.getTopOffenders(20);
+    }
+
+    /**
+     * Returns the readiness of the application as JSON, with status 503 while a readiness condition
+     * (e.g. warm-up) is pending.
+     */
+    @RequestMapping(value = "readiness", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<Map<String, Object>> readiness() {
+        Map<String, Object> readiness = new LinkedHashMap<>();
+        boolean ready = applicationReadiness.isReady();
+        readiness.put("ready", ready);
+        readiness.put("pending", applicationReadiness.getPendingConditions());
+        return new ResponseEntity<>(readiness, ready ? HttpStatus.OK : HttpStatus.SERVICE_UNAVAILABLE);
+    }
+
+}
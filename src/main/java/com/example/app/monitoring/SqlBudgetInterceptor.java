@@ -0,0 +1,42 @@
+package com.example.app.monitoring;
+
+import com.example.infra.jdbc.SqlBudgetGuard;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.handler.HandlerInterceptorAdapter;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+
+/**
+ * Interceptor that scopes the SQL budget of {@link SqlBudgetGuard} to a request.
+ * <p/>
+ * The budget covers the handler and the view rendering (including lazy loading through the open entity manager).
+ */
+public class SqlBudgetInterceptor extends HandlerInterceptorAdapter {
+
+    private final SqlBudgetGuard sqlBudgetGuard;
+
+    public SqlBudgetInterceptor(SqlBudgetGuard sqlBudgetGuard) {
+        this.sqlBudgetGuard = sqlBudgetGuard;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        sqlBudgetGuard.begin(handlerNameOf(handler));
+        return true;
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        sqlBudgetGuard.end();
+    }
+
+    private static String handlerNameOf(Object handler) {
+        if (handler instanceof HandlerMethod) {
+            HandlerMethod handlerMethod = (HandlerMethod) handler;
+            return handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName();
+        }
+        return handler.getClass().getSimpleName();
+    }
+
+}
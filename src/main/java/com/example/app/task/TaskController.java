@@ -0,0 +1,213 @@
+package com.example.app.task;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskScrollCallback;
+import com.example.domain.service.task.TaskService;
+import com.fasterxml.jackson.core.JsonEncoding;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.dozer.Mapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
+
+import javax.inject.Inject;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.Valid;
+import java.io.IOException;
+import java.util.Date;
+
+/**
+ * Handles requests for tasks.
+ */
+@Controller
+@RequestMapping("tasks")
+public class TaskController {
+
+    private static final JsonFactory jsonFactory = new JsonFactory();
+
+    @Inject
+    TaskService taskService;
+
+    @Inject
+    Mapper beanMapper;
+
+    @Value("${task.stream.flushInterval}")
+    int flushInterval;
+
+    /**
+     * Streams the tasks that match {@code finished} as a JSON array, ordered by creation.
+     * <p/>
+     * Tasks are written as they are read from a database cursor, and the response is flushed every
+     * {@code task.stream.flushInterval} tasks (0 or less flushes only after the first task), so it is sent chunked and
+     * the memory used does not depend on the number of tasks. Dates are epoch milliseconds. An error after the first flush cannot change the status
+     * anymore and aborts the response.
+     */
+    @RequestMapping(method = RequestMethod.GET, produces = "application/json")
+    public void list(@RequestParam(value = "finished", defaultValue = "false") boolean finished,
+                     HttpServletResponse response) throws IOException {
+        response.setContentType("application/json;charset=UTF-8");
+        final JsonGenerator generator = jsonFactory.createGenerator(response.getOutputStream(), JsonEncoding.UTF8);
+        generator.writeStartArray();
+        try {
+            taskService.scanByFinished(finished, new TaskScrollCallback() {
+                long count;
+
+                @Override
+                public boolean handle(Task task) {
+                    try {
+                        writeTask(generator, task);
+                        if (++count == 1 || (flushInterval > 0 && count % flushInterval == 0)) {
+                            generator.flush();
+                        }
+                    } catch (IOException e) {
+                        throw new ResponseWriteException(e);
+                    }
+                    return true;
+                }
+            });
+        } catch (ResponseWriteException e) {
+            throw (IOException) e.getCause();
+        }
+        generator.writeEndArray();
+        generator.close();
+    }
+
+    /**
+     * Returns the task as JSON with an ETag of its id and version.
+     * <p/>
+     * If {@code If-None-Match} is given, only the version is queried and 304 is returned without loading the task
+     * when it matches.
+     */
+    @RequestMapping(value = "{id}", method = RequestMethod.GET, produces = "application/json")
+    public ResponseEntity<Task> get(@PathVariable("id") String id,
+                                    @RequestHeader(value = "If-None-Match", required = false) String ifNoneMatch) {
+        if (ifNoneMatch != null) {
+            String eTag = eTagOf(id, taskService.getVersion(id));
+            if (matches(ifNoneMatch, eTag)) {
+                return new ResponseEntity<>(eTagHeaders(eTag), HttpStatus.NOT_MODIFIED);
+            }
+        }
+        Task task = taskService.getTask(id);
+        return new ResponseEntity<>(task, eTagHeaders(eTagOf(id, task.getVersion())), HttpStatus.OK);
+    }
+
+    /**
+     * Updates the task and returns it as JSON with its new ETag.
+     * <p/>
+     * {@code If-Match} is checked by optimistic locking: 412 is returned if the task has been updated since the
+     * client got the ETag, or is updated concurrently. Without {@code If-Match} the task is updated unconditionally.
+     * An invalid body (e.g. without title) is rejected with 400.
+     */
+    @RequestMapping(value = "{id}", method = RequestMethod.PUT, consumes = "application/json", produces = "application/json")
+    public ResponseEntity<Task> update(@PathVariable("id") String id,
+                                       @RequestHeader(value = "If-Match", required = false) String ifMatch,
+                                       @RequestBody @Valid TaskForm form) {
+        Long expectedVersion = null;
+        if (ifMatch != null && !"*".equals(ifMatch.trim())) {
+            expectedVersion = versionOf(id, ifMatch);
+            if (expectedVersion == null) {
+                return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+            }
+        }
+        Task task = taskService.updateTask(id, expectedVersion, beanMapper.map(form, Task.class));
+        return new ResponseEntity<>(task, eTagHeaders(eTagOf(id, task.getVersion())), HttpStatus.OK);
+    }
+
+    /**
+     * Returns 412 for an {@code If-Match} version that is not current.
+     */
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Void> handleOptimisticLockingFailure() {
+        return new ResponseEntity<>(HttpStatus.PRECONDITION_FAILED);
+    }
+
+    /**
+     * Returns the strong ETag of a task version, e.g. {@code "<id>.3"}.
+     */
+    private static String eTagOf(String id, long version) {
+        return "\"" + id + "." + version + "\"";
+    }
+
+    /**
+     * Returns whether {@code eTag} is in the {@code If-None-Match} header. Weak comparison is used as
+     * RFC 7232 requires for {@code If-None-Match}.
+     */
+    private static boolean matches(String ifNoneMatch, String eTag) {
+        for (String candidate : ifNoneMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith("W/")) {
+                candidate = candidate.substring(2);
+            }
+            if (candidate.equals("*") || candidate.equals(eTag)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Returns the version of the first ETag of the task in the {@code If-Match} header, or {@code null} if none.
+     */
+    private static Long versionOf(String id, String ifMatch) {
+        String prefix = "\"" + id + ".";
+        for (String candidate : ifMatch.split(",")) {
+            candidate = candidate.trim();
+            if (candidate.startsWith(prefix) && candidate.endsWith("\"") && candidate.length() > prefix.length() + 1) {
+                try {
+                    return Long.valueOf(candidate.substring(prefix.length(), candidate.length() - 1));
+                } catch (NumberFormatException e) {
+                    return null;
+                }
+            }
+        }
+        return null;
+    }
+
+    private static HttpHeaders eTagHeaders(String eTag) {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setETag(eTag);
+        return headers;
+    }
+
+    /**
+     * Carries an {@link IOException} of the response through {@link TaskScrollCallback}, rolling back the scan.
+     */
+    private static class ResponseWriteException extends RuntimeException {
+        ResponseWriteException(IOException cause) {
+            super(cause);
+        }
+    }
+
+    private static void writeTask(JsonGenerator generator, Task task) throws IOException {
+        generator.writeStartObject();
+        generator.writeStringField("id", task.getId());
+        generator.writeStringField("title", task.getTitle());
+        generator.writeStringField("description", task.getDescription());
+        writeDateField(generator, "deadlineDate", task.getDeadlineDate());
+        generator.writeBooleanField("finished", task.isFinished());
+        writeDateField(generator, "finishedAt", task.getFinishedAt());
+        writeDateField(generator, "createdAt", task.getCreatedAt());
+        generator.writeNumberField("version", task.getVersion());
+        generator.writeEndObject();
+    }
+
+    private static void writeDateField(JsonGenerator generator, String name, Date date) throws IOException {
+        if (date == null) {
+            generator.writeNullField(name);
+        } else {
+            generator.writeNumberField(name, date.getTime());
+        }
+    }
+
+}
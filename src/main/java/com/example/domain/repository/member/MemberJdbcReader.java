@@ -0,0 +1,37 @@
+package com.example.domain.repository.member;
+
+import com.example.domain.model.Member;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+/**
+ * Read-only JDBC queries on members for hot read paths.
+ * <p/>
+ * Rows are mapped by {@link MemberRowMapper} into detached {@link Member} instances, bypassing Hibernate.
+ * The returned members must not be passed to {@link MemberRepository} for updating.
+ * Queries join the transaction of the caller if any.
+ */
+public class MemberJdbcReader {
+
+    private static final String FIND_ALL_BY_ID_STARTING_WITH_SQL = "SELECT " + MemberRowMapper.COLUMNS
+            + " FROM member WHERE id LIKE :idPrefix ORDER BY login_id";
+
+    private final NamedParameterJdbcOperations jdbcOperations;
+
+    public MemberJdbcReader(DataSource dataSource) {
+        this.jdbcOperations = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Returns members whose id starts with {@code idPrefix}, ordered by login id.
+     */
+    public List<Member> findAllByIdStartingWith(String idPrefix) {
+        MapSqlParameterSource params = new MapSqlParameterSource().addValue("idPrefix", idPrefix + "%");
+        return jdbcOperations.query(FIND_ALL_BY_ID_STARTING_WITH_SQL, params, MemberRowMapper.INSTANCE);
+    }
+
+}
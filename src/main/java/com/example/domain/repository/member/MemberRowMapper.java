@@ -0,0 +1,30 @@
+package com.example.domain.repository.member;
+
+import com.example.domain.model.Member;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps a row selected with {@link #COLUMNS} to a {@link Member} by column index.
+ * <p/>
+ * Columns are read by position without name lookup or reflection, so the select list must be {@link #COLUMNS}.
+ */
+public class MemberRowMapper implements RowMapper<Member> {
+
+    public static final String COLUMNS = "id, login_id, name, version";
+
+    public static final MemberRowMapper INSTANCE = new MemberRowMapper();
+
+    @Override
+    public Member mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Member member = new Member();
+        member.setId(rs.getString(1));
+        member.setLoginId(rs.getString(2));
+        member.setName(rs.getString(3));
+        member.setVersion(rs.getLong(4));
+        return member;
+    }
+
+}
@@ -0,0 +1,94 @@
+package com.example.domain.repository.task;
+
+import java.sql.Date;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A chunk of task columns stored as arrays (struct of arrays), filled by
+ * {@link TaskJdbcReader#scanColumns(int, boolean, TaskColumnBatchCallback)}.
+ * <p/>
+ * Dates are epoch milliseconds, with {@link #NO_DATE} for {@code NULL}. Elements from {@code 0} to
+ * {@code size() - 1} of the arrays are valid. The same batch and arrays are reused for every chunk of a scan.
+ */
+public class TaskColumnBatch {
+
+    /**
+     * Value of a {@code NULL} date.
+     */
+    public static final long NO_DATE = Long.MIN_VALUE;
+
+    private final String[] ids;
+    private final BitSet finished;
+    private final long[] deadlineDates;
+    private final long[] createdAts;
+    private int size;
+
+    TaskColumnBatch(int capacity, boolean withIds) {
+        this.ids = withIds ? new String[capacity] : null;
+        this.finished = new BitSet(capacity);
+        this.deadlineDates = new long[capacity];
+        this.createdAts = new long[capacity];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public int capacity() {
+        return createdAts.length;
+    }
+
+    /**
+     * Returns the ids, or {@code null} if the scan does not read ids.
+     */
+    public String[] getIds() {
+        return ids;
+    }
+
+    /**
+     * Returns the {@code finished} flags, a set bit for a finished task.
+     */
+    public BitSet getFinished() {
+        return finished;
+    }
+
+    public long[] getDeadlineDates() {
+        return deadlineDates;
+    }
+
+    public long[] getCreatedAts() {
+        return createdAts;
+    }
+
+    boolean isFull() {
+        return size == createdAts.length;
+    }
+
+    void clear() {
+        if (ids != null) {
+            Arrays.fill(ids, 0, size, null);
+        }
+        finished.clear();
+        size = 0;
+    }
+
+    /**
+     * Appends the current row of a column scan.
+     */
+    void add(ResultSet rs) throws SQLException {
+        int index = size++;
+        finished.set(index, rs.getBoolean(1));
+        Date deadlineDate = rs.getDate(2);
+        deadlineDates[index] = deadlineDate == null ? NO_DATE : deadlineDate.getTime();
+        Timestamp createdAt = rs.getTimestamp(3);
+        createdAts[index] = createdAt.getTime();
+        if (ids != null) {
+            ids[index] = rs.getString(4);
+        }
+    }
+
+}
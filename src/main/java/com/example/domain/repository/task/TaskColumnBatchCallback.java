@@ -0,0 +1,16 @@
+package com.example.domain.repository.task;
+
+/**
+ * Callback that receives chunks of task columns from a column scan.
+ */
+public interface TaskColumnBatchCallback {
+
+    /**
+     * Handles a chunk. The batch is refilled with the next chunk after this method returns,
+     * so its arrays must not be retained.
+     *
+     * @return {@code false} to stop scanning
+     */
+    boolean handle(TaskColumnBatch batch);
+
+}
@@ -0,0 +1,119 @@
+package com.example.domain.repository.task;
+
+import com.example.domain.model.Task;
+import com.example.infra.jdbc.FetchSizeContext;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.jdbc.core.RowMapperResultSetExtractor;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+
+import javax.sql.DataSource;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Types;
+import java.util.Date;
+import java.util.List;
+
+/**
+ * Read-only JDBC queries on tasks for hot read paths.
+ * <p/>
+ * Rows are mapped by {@link TaskRowMapper} into detached {@link Task} instances, bypassing Hibernate
+ * (no persistence context, dirty checking snapshots or entity hydration). The returned tasks must not be
+ * passed to {@link TaskRepository} for updating. Queries join the transaction of the caller if any.
+ */
+public class TaskJdbcReader {
+
+    private static final String FIND_ALL_BY_FINISHED_SQL = "SELECT " + TaskRowMapper.COLUMNS
+            + " FROM task WHERE id LIKE :idPrefix AND finished = :finished ORDER BY created_at";
+
+    private static final String FIND_FIRST_BY_FINISHED_SQL = "SELECT " + TaskRowMapper.COLUMNS
+            + " FROM task WHERE finished = :finished ORDER BY created_at, id LIMIT :limit";
+
+    private static final String FIND_NEXT_BY_FINISHED_SQL = "SELECT " + TaskRowMapper.COLUMNS
+            + " FROM task WHERE finished = :finished AND (created_at > :createdAt OR (created_at = :createdAt AND id > :id))"
+            + " ORDER BY created_at, id LIMIT :limit";
+
+    private static final String SCAN_COLUMNS_SQL = "SELECT finished, deadline_date, created_at FROM task";
+
+    private static final String SCAN_COLUMNS_WITH_IDS_SQL = "SELECT finished, deadline_date, created_at, id FROM task";
+
+    private final NamedParameterJdbcOperations jdbcOperations;
+
+    public TaskJdbcReader(DataSource dataSource) {
+        this.jdbcOperations = new NamedParameterJdbcTemplate(dataSource);
+    }
+
+    /**
+     * Same as {@link TaskRepository#findAllByFinished(String, boolean)}.
+     */
+    public List<Task> findAllByFinished(String idPrefix, boolean finished) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("idPrefix", idPrefix + "%")
+                .addValue("finished", finished);
+        return jdbcOperations.query(FIND_ALL_BY_FINISHED_SQL, params, TaskRowMapper.INSTANCE);
+    }
+
+    /**
+     * Same as {@link TaskRepository#findNextByFinished(boolean, Date, String, org.springframework.data.domain.Pageable)}
+     * with the first page, or the first {@code limit} tasks if {@code id} is {@code null}.
+     * The whole page is fetched in one round trip into a list sized for it.
+     */
+    public List<Task> findNextByFinished(boolean finished, Date createdAt, String id, int limit) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("finished", finished)
+                .addValue("limit", limit);
+        String sql = FIND_FIRST_BY_FINISHED_SQL;
+        if (id != null) {
+            params.addValue("createdAt", createdAt, Types.TIMESTAMP).addValue("id", id);
+            sql = FIND_NEXT_BY_FINISHED_SQL;
+        }
+        int previousFetchSize = FetchSizeContext.begin(limit + 1);
+        try {
+            return jdbcOperations.query(sql, params, new RowMapperResultSetExtractor<>(TaskRowMapper.INSTANCE, limit));
+        } finally {
+            FetchSizeContext.end(previousFetchSize);
+        }
+    }
+
+    /**
+     * Scans the {@code finished}, {@code deadline_date} and {@code created_at} columns (and {@code id} if
+     * {@code withIds}) of all tasks in chunks of {@code batchSize} rows, fetching one chunk per round trip.
+     * No {@link Task} is created and the chunk arrays are reused, so the allocation does not grow with the number
+     * of tasks (except for ids). Call within a transaction to let the driver stream the rows with a cursor.
+     *
+     * @return the number of rows scanned
+     */
+    public long scanColumns(int batchSize, boolean withIds, final TaskColumnBatchCallback callback) {
+        final TaskColumnBatch batch = new TaskColumnBatch(batchSize, withIds);
+        int previousFetchSize = FetchSizeContext.begin(batchSize);
+        try {
+            return jdbcOperations.getJdbcOperations().query(withIds ? SCAN_COLUMNS_WITH_IDS_SQL : SCAN_COLUMNS_SQL,
+                    new ResultSetExtractor<Long>() {
+                        @Override
+                        public Long extractData(ResultSet rs) throws SQLException, DataAccessException {
+                            long count = 0;
+                            while (rs.next()) {
+                                batch.add(rs);
+                                count++;
+                                if (batch.isFull()) {
+                                    boolean next = callback.handle(batch);
+                                    batch.clear();
+                                    if (!next) {
+                                        return count;
+                                    }
+                                }
+                            }
+                            if (batch.size() > 0) {
+                                callback.handle(batch);
+                            }
+                            return count;
+                        }
+                    });
+        } finally {
+            FetchSizeContext.end(previousFetchSize);
+        }
+    }
+
+}
@@ -14,7 +14,7 @@ import java.util.Date;
 import java.util.List;
 
 @Transactional
-public interface TaskRepository extends JpaRepository<Task, String> {
+public interface TaskRepository extends JpaRepository<Task, String>, TaskRepositoryCustom {
 
     @Query("SELECT t FROM Task t WHERE t.id LIKE :idPrefix% AND t.finished = :finished ORDER BY t.createdAt")
     List<Task> findAllByFinished(@Param("idPrefix") String idPrefix, @Param("finished") boolean finished);
@@ -27,6 +27,9 @@ public interface TaskRepository extends JpaRepository<Task, String> {
 
     Task findOneById(String id);
 
+    @Query("SELECT t.version FROM Task t WHERE t.id = :id")
+    Long findVersionById(@Param("id") String id);
+
     List<Task> findAllByIdStartingWithAndFinished(String idPrefix, boolean finished);
 
     List<Task> findSortedAllByIdStartingWithAndFinished(String idPrefix, boolean finished, Sort sort);
@@ -41,6 +44,13 @@ public interface TaskRepository extends JpaRepository<Task, String> {
     @Query(name = "Task.findByFinishedWithoutOrderBy")
     Page<Task> findPageByFinished(@Param("finished") boolean finished, Pageable pageable);
 
+    Page<Task> findPageByFinishedOrderByCreatedAtAscIdAsc(boolean finished, Pageable pageable);
+
+    List<Task> findSliceByFinishedOrderByCreatedAtAscIdAsc(boolean finished, Pageable pageable);
+
+    @Query("SELECT t FROM Task t WHERE t.finished = :finished AND (t.createdAt > :createdAt OR (t.createdAt = :createdAt AND t.id > :id)) ORDER BY t.createdAt, t.id")
+    List<Task> findNextByFinished(@Param("finished") boolean finished, @Param("createdAt") Date createdAt, @Param("id") String id, Pageable pageable);
+
     @QueryHints(value = {@QueryHint(name = "javax.persistence.lock.timeout", value = "0")})
     @Lock(LockModeType.PESSIMISTIC_WRITE)
     Task findOneWithinPessimisticWriteLockById(String id);
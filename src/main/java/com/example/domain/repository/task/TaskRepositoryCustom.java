@@ -0,0 +1,17 @@
+package com.example.domain.repository.task;
+
+/**
+ * Custom operations of {@link TaskRepository}.
+ */
+public interface TaskRepositoryCustom {
+
+    /**
+     * Reads tasks ordered by {@code createdAt} and {@code id} through a forward-only cursor,
+     * without holding them in the persistence context.
+     *
+     * @param fetchSize number of rows fetched per round trip
+     * @return number of handled tasks
+     */
+    long scrollByFinished(boolean finished, int fetchSize, TaskScrollCallback callback);
+
+}
@@ -0,0 +1,54 @@
+package com.example.domain.repository.task;
+
+import com.example.domain.model.Task;
+import com.example.infra.jdbc.FetchSizeContext;
+import org.hibernate.ScrollMode;
+import org.hibernate.ScrollableResults;
+import org.hibernate.Session;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+
+/**
+ * Implementation of {@link TaskRepositoryCustom}.
+ */
+public class TaskRepositoryImpl implements TaskRepositoryCustom {
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Transactional(readOnly = true)
+    @Override
+    public long scrollByFinished(boolean finished, int fetchSize, TaskScrollCallback callback) {
+        Session session = entityManager.unwrap(Session.class);
+        int previousFetchSize = FetchSizeContext.begin(fetchSize);
+        ScrollableResults results;
+        try {
+            results = session
+                    .createQuery("SELECT t FROM Task t WHERE t.finished = :finished ORDER BY t.createdAt, t.id")
+                    .setBoolean("finished", finished)
+                    .setFetchSize(fetchSize)
+                    .setReadOnly(true)
+                    .scroll(ScrollMode.FORWARD_ONLY);
+        } finally {
+            FetchSizeContext.end(previousFetchSize);
+        }
+        long count = 0;
+        try {
+            while (results.next()) {
+                Task task = (Task) results.get(0);
+                count++;
+                boolean next = callback.handle(task);
+                session.evict(task);
+                if (!next) {
+                    break;
+                }
+            }
+        } finally {
+            results.close();
+        }
+        return count;
+    }
+
+}
@@ -0,0 +1,34 @@
+package com.example.domain.repository.task;
+
+import com.example.domain.model.Task;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+
+/**
+ * Maps a row selected with {@link #COLUMNS} to a {@link Task} by column index.
+ * <p/>
+ * Columns are read by position without name lookup or reflection, so the select list must be {@link #COLUMNS}.
+ */
+public class TaskRowMapper implements RowMapper<Task> {
+
+    public static final String COLUMNS = "id, title, description, deadline_date, finished, finished_at, created_at, version";
+
+    public static final TaskRowMapper INSTANCE = new TaskRowMapper();
+
+    @Override
+    public Task mapRow(ResultSet rs, int rowNum) throws SQLException {
+        Task task = new Task();
+        task.setId(rs.getString(1));
+        task.setTitle(rs.getString(2));
+        task.setDescription(rs.getString(3));
+        task.setDeadlineDate(rs.getDate(4));
+        task.setFinished(rs.getBoolean(5));
+        task.setFinishedAt(rs.getTimestamp(6));
+        task.setCreatedAt(rs.getTimestamp(7));
+        task.setVersion(rs.getLong(8));
+        return task;
+    }
+
+}
@@ -0,0 +1,17 @@
+package com.example.domain.repository.task;
+
+import com.example.domain.model.Task;
+
+/**
+ * Callback that receives tasks one by one from a scrolling query.
+ */
+public interface TaskScrollCallback {
+
+    /**
+     * Handles a task. The task is detached after this method returns.
+     *
+     * @return {@code false} to stop scrolling
+     */
+    boolean handle(Task task);
+
+}
@@ -0,0 +1,346 @@
+package com.example.domain.repository.task;
+
+import com.example.domain.model.Task;
+import com.example.infra.concurrent.BoundedRingBuffer;
+import com.example.infra.jdbc.AdaptiveBatchSizeController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcOperations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Date;
+import java.util.Iterator;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Opt-in write-behind buffer for creating tasks.
+ * <p/>
+ * When enabled, new tasks are put into a bounded ring buffer and a flusher thread inserts them
+ * using multi-row JDBC batches (one transaction per batch). When disabled, {@link #save(Task)}
+ * simply delegates to {@link TaskRepository#save(Object)}.
+ * <p/>
+ * If an {@link AdaptiveBatchSizeController} is set, the batch size follows the latency of flushed batches
+ * instead of the fixed {@code batchSize}.
+ * <p/>
+ * If a batch fails, its tasks are retried one by one, so that only the tasks that cannot be inserted fail.
+ * A task that is put into the buffer while it is being closed is saved directly by its caller.
+ */
+public class TaskWriteBehindBuffer {
+
+    /**
+     * Timing that {@link #save(Task)} returns to the caller.
+     */
+    public enum AckMode {
+        /**
+         * Returns after the task has been put into the buffer. Tasks in the buffer are lost if the process dies.
+         */
+        ENQUEUE,
+        /**
+         * Returns after the batch that contains the task has been committed.
+         */
+        COMMIT
+    }
+
+    private static final Logger logger = LoggerFactory.getLogger(TaskWriteBehindBuffer.class);
+
+    private static final String INSERT_SQL = "INSERT INTO task (id, title, description, deadline_date, finished, finished_at, created_at, version) VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final TaskRepository taskRepository;
+    private final JdbcOperations jdbcOperations;
+    private final TransactionTemplate transactionTemplate;
+
+    private boolean enabled = false;
+    private AckMode ackMode = AckMode.COMMIT;
+    private int capacity = 8192;
+    private int batchSize = 500;
+    private long flushIntervalMillis = 10;
+    private long offerTimeoutMillis = 1000;
+    private long commitTimeoutMillis = 30000;
+    private AdaptiveBatchSizeController batchSizeController;
+
+    private BoundedRingBuffer<PendingTask> buffer;
+    private Thread flusher;
+    private volatile boolean running;
+
+    public TaskWriteBehindBuffer(TaskRepository taskRepository, DataSource dataSource, PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.jdbcOperations = new JdbcTemplate(dataSource);
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        buffer = new BoundedRingBuffer<>(capacity);
+        running = true;
+        flusher = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                flushContinuously();
+            }
+        }, "task-write-behind-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+        logger.info("Task write-behind buffer started. ackMode={}, capacity={}, batchSize={}", ackMode, buffer.capacity(),
+                batchSizeController == null ? batchSize : "adaptive");
+    }
+
+    public void close() throws InterruptedException {
+        if (!running) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(flusher);
+        flusher.join();
+        // final flush: every task claimed here is written, also in ENQUEUE mode where its caller has already returned.
+        // tasks put after the buffer is found empty are withdrawn and saved by their callers, as running is false.
+        List<PendingTask> batch = new ArrayList<>(batchSize);
+        while (drain(batch) > 0) {
+            flush(batch);
+            batch.clear();
+        }
+        logger.info("Task write-behind buffer closed.");
+    }
+
+    /**
+     * Saves a new task.
+     *
+     * @throws TransientDataAccessResourceException if the buffer stays full longer than the offer timeout,
+     *                                              or the commit is not acknowledged within the commit timeout
+     */
+    public Task save(Task task) {
+        if (!running) {
+            return taskRepository.save(task);
+        }
+        if (task.getId() == null) {
+            task.setId(UUID.randomUUID().toString());
+        }
+        if (task.getCreatedAt() == null) {
+            task.setCreatedAt(new Date());
+        }
+        PendingTask pendingTask = new PendingTask(task, ackMode == AckMode.COMMIT);
+        enqueue(pendingTask);
+        // the buffer may have been closed after the check above, and the task missed by the final drain
+        if (!running && pendingTask.withdraw()) {
+            return taskRepository.save(task);
+        }
+        if (ackMode == AckMode.COMMIT) {
+            pendingTask.awaitCommit();
+        }
+        return task;
+    }
+
+    public int getPendingCount() {
+        return buffer == null ? 0 : buffer.size();
+    }
+
+    private void enqueue(PendingTask pendingTask) {
+        if (buffer.offer(pendingTask)) {
+            return;
+        }
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(offerTimeoutMillis);
+        while (!buffer.offer(pendingTask)) {
+            if (!running || System.nanoTime() >= deadline) {
+                throw new TransientDataAccessResourceException("Task write-behind buffer is full. capacity=" + buffer.capacity());
+            }
+            LockSupport.unpark(flusher);
+            LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+        }
+    }
+
+    private void flushContinuously() {
+        List<PendingTask> batch = new ArrayList<>(batchSize);
+        while (running) {
+            if (drain(batch) == 0) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(flushIntervalMillis));
+                continue;
+            }
+            flush(batch);
+            batch.clear();
+        }
+    }
+
+    /**
+     * Drains tasks into {@code batch}, skipping the ones withdrawn by their callers.
+     *
+     * @return the number of tasks drained from the buffer
+     */
+    private int drain(List<PendingTask> batch) {
+        int drained = buffer.drainTo(batch, nextBatchSize());
+        for (Iterator<PendingTask> iterator = batch.iterator(); iterator.hasNext(); ) {
+            if (!iterator.next().claim()) {
+                iterator.remove();
+            }
+        }
+        return drained;
+    }
+
+    private int nextBatchSize() {
+        return batchSizeController == null ? batchSize : batchSizeController.getBatchSize();
+    }
+
+    private void flush(List<PendingTask> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        long start = System.nanoTime();
+        try {
+            insert(batch);
+        } catch (Throwable e) {
+            logger.warn("Failed to flush a batch of the task write-behind buffer. Retrying the tasks one by one. size=" + batch.size(), e);
+            for (PendingTask pendingTask : batch) {
+                try {
+                    insert(Collections.singletonList(pendingTask));
+                    pendingTask.complete(null);
+                } catch (Throwable taskFailure) {
+                    logger.error("Failed to write a task of the task write-behind buffer. id=" + pendingTask.task.getId(), taskFailure);
+                    pendingTask.complete(taskFailure instanceof RuntimeException ? (RuntimeException) taskFailure
+                            : new TransientDataAccessResourceException("Failed to write a task. id=" + pendingTask.task.getId(), taskFailure));
+                }
+            }
+            return;
+        }
+        if (batchSizeController != null) {
+            batchSizeController.record(batch.size(), System.nanoTime() - start);
+        }
+        for (PendingTask pendingTask : batch) {
+            pendingTask.complete(null);
+        }
+    }
+
+    private void insert(final List<PendingTask> batch) {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                jdbcOperations.batchUpdate(INSERT_SQL, new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        Task task = batch.get(i).task;
+                        ps.setString(1, task.getId());
+                        ps.setString(2, task.getTitle());
+                        ps.setString(3, task.getDescription());
+                        ps.setObject(4, task.getDeadlineDate() == null ? null : new java.sql.Date(task.getDeadlineDate().getTime()), Types.DATE);
+                        ps.setBoolean(5, task.isFinished());
+                        ps.setObject(6, task.getFinishedAt() == null ? null : new Timestamp(task.getFinishedAt().getTime()), Types.TIMESTAMP);
+                        ps.setTimestamp(7, new Timestamp(task.getCreatedAt().getTime()));
+                        ps.setLong(8, task.getVersion());
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                });
+            }
+        });
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setAckMode(AckMode ackMode) {
+        this.ackMode = ackMode;
+    }
+
+    public void setCapacity(int capacity) {
+        this.capacity = capacity;
+    }
+
+    public void setBatchSize(int batchSize) {
+        this.batchSize = batchSize;
+    }
+
+    public void setBatchSizeController(AdaptiveBatchSizeController batchSizeController) {
+        this.batchSizeController = batchSizeController;
+    }
+
+    public void setFlushIntervalMillis(long flushIntervalMillis) {
+        this.flushIntervalMillis = flushIntervalMillis;
+    }
+
+    public void setOfferTimeoutMillis(long offerTimeoutMillis) {
+        this.offerTimeoutMillis = offerTimeoutMillis;
+    }
+
+    public void setCommitTimeoutMillis(long commitTimeoutMillis) {
+        this.commitTimeoutMillis = commitTimeoutMillis;
+    }
+
+    private class PendingTask {
+
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int WITHDRAWN = 2;
+
+        private final Task task;
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+        private final CountDownLatch committed;
+        private volatile RuntimeException failure;
+
+        private PendingTask(Task task, boolean waitForCommit) {
+            this.task = task;
+            this.committed = waitForCommit ? new CountDownLatch(1) : null;
+        }
+
+        /**
+         * Takes the task for writing by the buffer.
+         *
+         * @return {@code false} if the caller has withdrawn it
+         */
+        private boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        /**
+         * Takes the task back for saving by the caller.
+         *
+         * @return {@code false} if the buffer has claimed it
+         */
+        private boolean withdraw() {
+            return state.compareAndSet(QUEUED, WITHDRAWN);
+        }
+
+        private void complete(RuntimeException failure) {
+            this.failure = failure;
+            if (committed != null) {
+                committed.countDown();
+            }
+        }
+
+        private void awaitCommit() {
+            try {
+                if (!committed.await(commitTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    throw new TransientDataAccessResourceException("Timed out waiting for the commit of task. id=" + task.getId()
+                            + (withdraw() ? " (not written)" : " (the outcome is unknown)"));
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new TransientDataAccessResourceException("Interrupted while waiting for the commit of task. id=" + task.getId(), e);
+            }
+            if (failure != null) {
+                throw failure;
+            }
+        }
+    }
+
+}
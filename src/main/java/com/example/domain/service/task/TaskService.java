@@ -0,0 +1,43 @@
+package com.example.domain.service.task;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskScrollCallback;
+
+/**
+ * Service for tasks.
+ */
+public interface TaskService {
+
+    /**
+     * Passes the tasks that match {@code finished}, ordered by creation, to {@code callback} one by one
+     * while they are read from a database cursor.
+     *
+     * @return the number of tasks passed to the callback
+     */
+    long scanByFinished(boolean finished, TaskScrollCallback callback);
+
+    /**
+     * Returns the task.
+     *
+     * @throws org.terasoluna.gfw.common.exception.ResourceNotFoundException if the task does not exist
+     */
+    Task getTask(String id);
+
+    /**
+     * Returns the version of the task without loading it.
+     *
+     * @throws org.terasoluna.gfw.common.exception.ResourceNotFoundException if the task does not exist
+     */
+    long getVersion(String id);
+
+    /**
+     * Updates the title, description, deadline date and finished state of the task.
+     *
+     * @param expectedVersion the version the client has, or {@code null} to update any version
+     * @throws org.terasoluna.gfw.common.exception.ResourceNotFoundException if the task does not exist
+     * @throws org.springframework.dao.OptimisticLockingFailureException if the task is not of {@code expectedVersion},
+     *                                                                   or is updated concurrently
+     */
+    Task updateTask(String id, Long expectedVersion, Task changes);
+
+}
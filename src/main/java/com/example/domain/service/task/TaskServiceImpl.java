@@ -0,0 +1,71 @@
+package com.example.domain.service.task;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.domain.repository.task.TaskScrollCallback;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.terasoluna.gfw.common.exception.ResourceNotFoundException;
+
+import javax.inject.Inject;
+import java.util.Date;
+
+/**
+ * Implementation of {@link TaskService}.
+ */
+@Service
+@Transactional
+public class TaskServiceImpl implements TaskService {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Value("${task.stream.fetchSize}")
+    int fetchSize;
+
+    @Transactional(readOnly = true)
+    @Override
+    public long scanByFinished(boolean finished, TaskScrollCallback callback) {
+        return taskRepository.scrollByFinished(finished, fetchSize, callback);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public Task getTask(String id) {
+        Task task = taskRepository.findOne(id);
+        if (task == null) {
+            throw new ResourceNotFoundException("Task is not found. id=" + id);
+        }
+        return task;
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public long getVersion(String id) {
+        Long version = taskRepository.findVersionById(id);
+        if (version == null) {
+            throw new ResourceNotFoundException("Task is not found. id=" + id);
+        }
+        return version;
+    }
+
+    @Override
+    public Task updateTask(String id, Long expectedVersion, Task changes) {
+        Task task = getTask(id);
+        // the version check at flush only detects concurrent updates, so compare with the version of the client first
+        if (expectedVersion != null && expectedVersion != task.getVersion()) {
+            throw new ObjectOptimisticLockingFailureException(Task.class, id);
+        }
+        task.setTitle(changes.getTitle());
+        task.setDescription(changes.getDescription());
+        task.setDeadlineDate(changes.getDeadlineDate());
+        if (changes.isFinished() != task.isFinished()) {
+            task.setFinished(changes.isFinished());
+            task.setFinishedAt(changes.isFinished() ? new Date() : null);
+        }
+        return taskRepository.saveAndFlush(task);
+    }
+
+}
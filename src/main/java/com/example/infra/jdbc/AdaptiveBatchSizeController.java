@@ -0,0 +1,100 @@
+package com.example.infra.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Chooses the size of JDBC batches from the observed round-trip latency (additive increase, multiplicative decrease).
+ * <p/>
+ * While a batch completes within {@code targetLatencyMillis}, the batch size grows by {@code increment} up to
+ * {@code maxBatchSize}, so that more rows share one round trip. When a batch is slower than the target
+ * (e.g. lock waits or a loaded database), the batch size is halved down to {@code minBatchSize},
+ * so that transactions stay short.
+ */
+@ManagedResource(description = "Adaptive JDBC batch size")
+public class AdaptiveBatchSizeController {
+
+    private static final Logger logger = LoggerFactory.getLogger(AdaptiveBatchSizeController.class);
+
+    private volatile int minBatchSize = 10;
+    private volatile int maxBatchSize = 2000;
+    private volatile int increment = 50;
+    private volatile long targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(50);
+
+    private volatile int batchSize = 100;
+    private volatile long lastLatencyNanos;
+
+    /**
+     * Returns the size of the next batch.
+     */
+    @ManagedAttribute(description = "Size of the next batch")
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Records a completed batch and adjusts the size of the next batch.
+     *
+     * @param size         number of statements in the batch
+     * @param elapsedNanos elapsed time of the batch including its commit
+     */
+    public synchronized void record(int size, long elapsedNanos) {
+        lastLatencyNanos = elapsedNanos;
+        int current = batchSize;
+        int next;
+        if (elapsedNanos > targetLatencyNanos) {
+            next = Math.max(current / 2, minBatchSize);
+        } else if (size >= current) {
+            // grow only when the batch was full; a partial batch tells nothing about a larger one
+            next = Math.min(current + increment, maxBatchSize);
+        } else {
+            next = current;
+        }
+        if (next != current) {
+            batchSize = next;
+            logger.debug("Batch size changed. {} -> {} (latency {}us)", current, next, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        }
+    }
+
+    @ManagedAttribute(description = "Latency of the last batch in microseconds")
+    public long getLastLatencyMicros() {
+        return TimeUnit.NANOSECONDS.toMicros(lastLatencyNanos);
+    }
+
+    @ManagedAttribute(description = "Target latency of a batch in milliseconds")
+    public long getTargetLatencyMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(targetLatencyNanos);
+    }
+
+    @ManagedAttribute
+    public void setTargetLatencyMillis(long targetLatencyMillis) {
+        this.targetLatencyNanos = TimeUnit.MILLISECONDS.toNanos(targetLatencyMillis);
+    }
+
+    public void setMinBatchSize(int minBatchSize) {
+        this.minBatchSize = Math.max(minBatchSize, 1);
+    }
+
+    public void setMaxBatchSize(int maxBatchSize) {
+        this.maxBatchSize = maxBatchSize;
+    }
+
+    public void setIncrement(int increment) {
+        this.increment = increment;
+    }
+
+    public void setInitialBatchSize(int initialBatchSize) {
+        this.batchSize = initialBatchSize;
+    }
+
+    @ManagedOperation(description = "Resets the batch size")
+    public void reset(int batchSize) {
+        this.batchSize = Math.min(Math.max(batchSize, minBatchSize), maxBatchSize);
+    }
+
+}
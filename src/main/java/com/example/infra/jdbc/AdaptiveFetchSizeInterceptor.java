@@ -0,0 +1,72 @@
+package com.example.infra.jdbc;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+/**
+ * Interceptor that derives the fetch size of queries from the {@link Pageable} argument of repository methods.
+ * <p/>
+ * A page is fetched in one round trip, so the fetch size is the page size plus one (for drivers that read ahead),
+ * bounded by {@code maxFetchSize}. Methods without a {@link Pageable} keep the default fetch size.
+ * Streaming methods set their own fetch size through {@link FetchSizeContext}.
+ */
+@ManagedResource(description = "Fetch size derived from the page size")
+public class AdaptiveFetchSizeInterceptor implements MethodInterceptor {
+
+    private volatile boolean enabled = true;
+    private volatile int maxFetchSize = 1000;
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!enabled) {
+            return invocation.proceed();
+        }
+        int fetchSize = 0;
+        for (Object argument : invocation.getArguments()) {
+            if (argument instanceof Pageable) {
+                fetchSize = fetchSizeOf(((Pageable) argument).getPageSize());
+                break;
+            }
+        }
+        if (fetchSize <= 0) {
+            return invocation.proceed();
+        }
+        int previous = FetchSizeContext.begin(fetchSize);
+        try {
+            return invocation.proceed();
+        } finally {
+            FetchSizeContext.end(previous);
+        }
+    }
+
+    /**
+     * Returns the fetch size for the page size.
+     */
+    public int fetchSizeOf(int pageSize) {
+        return (int) Math.min((long) pageSize + 1, maxFetchSize);
+    }
+
+    @ManagedAttribute(description = "Whether the fetch size is derived from the page size")
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @ManagedAttribute
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @ManagedAttribute(description = "Upper bound of the fetch size")
+    public int getMaxFetchSize() {
+        return maxFetchSize;
+    }
+
+    @ManagedAttribute
+    public void setMaxFetchSize(int maxFetchSize) {
+        this.maxFetchSize = Math.max(maxFetchSize, 1);
+    }
+
+}
@@ -0,0 +1,45 @@
+package com.example.infra.jdbc;
+
+/**
+ * Holds the fetch size that {@link InstrumentedDataSource} applies to queries executed on the current thread.
+ * <p/>
+ * While no fetch size is held, the fetch size set by the caller (e.g. {@code hibernate.jdbc.fetch_size}) is used.
+ */
+public final class FetchSizeContext {
+
+    private static final ThreadLocal<Integer> currentFetchSize = new ThreadLocal<>();
+
+    private FetchSizeContext() {
+    }
+
+    /**
+     * Returns the fetch size for the current thread, or 0 if none.
+     */
+    public static int getCurrentFetchSize() {
+        Integer fetchSize = currentFetchSize.get();
+        return fetchSize == null ? 0 : fetchSize;
+    }
+
+    /**
+     * Sets the fetch size for the current thread.
+     *
+     * @return the previous fetch size, to be passed to {@link #end(int)}
+     */
+    public static int begin(int fetchSize) {
+        int previous = getCurrentFetchSize();
+        currentFetchSize.set(fetchSize);
+        return previous;
+    }
+
+    /**
+     * Restores the fetch size returned by {@link #begin(int)}.
+     */
+    public static void end(int previous) {
+        if (previous <= 0) {
+            currentFetchSize.remove();
+        } else {
+            currentFetchSize.set(previous);
+        }
+    }
+
+}
@@ -0,0 +1,81 @@
+package com.example.infra.jdbc;
+
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Connection of {@link InstrumentedDataSource} that instruments the statements it creates.
+ */
+class InstrumentedConnection extends DelegatingConnection {
+
+    private final InstrumentedDataSource dataSource;
+
+    InstrumentedConnection(Connection target, InstrumentedDataSource dataSource) {
+        super(target);
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public Statement createStatement() throws SQLException {
+        return new InstrumentedStatement(target.createStatement(), this, dataSource);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql) throws SQLException {
+        return new InstrumentedPreparedStatement(target.prepareStatement(sql), sql, this, dataSource);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql) throws SQLException {
+        return new InstrumentedCallableStatement(target.prepareCall(sql), sql, this, dataSource);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency) throws SQLException {
+        return new InstrumentedStatement(target.createStatement(resultSetType, resultSetConcurrency), this, dataSource);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return new InstrumentedPreparedStatement(target.prepareStatement(sql, resultSetType, resultSetConcurrency), sql, this, dataSource);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency) throws SQLException {
+        return new InstrumentedCallableStatement(target.prepareCall(sql, resultSetType, resultSetConcurrency), sql, this, dataSource);
+    }
+
+    @Override
+    public Statement createStatement(int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return new InstrumentedStatement(target.createStatement(resultSetType, resultSetConcurrency, resultSetHoldability), this, dataSource);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return new InstrumentedPreparedStatement(target.prepareStatement(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql, this, dataSource);
+    }
+
+    @Override
+    public CallableStatement prepareCall(String sql, int resultSetType, int resultSetConcurrency, int resultSetHoldability) throws SQLException {
+        return new InstrumentedCallableStatement(target.prepareCall(sql, resultSetType, resultSetConcurrency, resultSetHoldability), sql, this, dataSource);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int autoGeneratedKeys) throws SQLException {
+        return new InstrumentedPreparedStatement(target.prepareStatement(sql, autoGeneratedKeys), sql, this, dataSource);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, int[] columnIndexes) throws SQLException {
+        return new InstrumentedPreparedStatement(target.prepareStatement(sql, columnIndexes), sql, this, dataSource);
+    }
+
+    @Override
+    public PreparedStatement prepareStatement(String sql, String[] columnNames) throws SQLException {
+        return new InstrumentedPreparedStatement(target.prepareStatement(sql, columnNames), sql, this, dataSource);
+    }
+
+}
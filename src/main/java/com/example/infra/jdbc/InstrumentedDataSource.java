@@ -0,0 +1,209 @@
+package com.example.infra.jdbc;
+
+import com.example.infra.monitoring.LatencyHistogram;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * DataSource wrapper that records latency histograms per SQL statement.
+ * <p/>
+ * SQL text logging is sampled (1 out of {@code sqlLogSampleRate} executions) and can be switched at runtime
+ * via JMX. When the sample rate is 0 (default), no log is written and recording does not allocate.
+ * <p/>
+ * {@link StatementExecutionListener}s receive the details (bind values, row counts) of the executions they require
+ * (e.g. slower than a threshold). Executions that no listener requires cost no allocation for the details.
+ * Bind values are captured into a per-statement array only if a registered listener requires them, and copied
+ * only for required executions.
+ * {@link StatementExecutionGuard}s can reject a statement before it is executed.
+ * Queries are executed with the fetch size held by {@link FetchSizeContext}, if any.
+ * <p/>
+ * Connections and statements are wrapped by delegating classes ({@link InstrumentedConnection},
+ * {@link InstrumentedStatement} and its subclasses) rather than JDK dynamic proxies, so that setting a bind value
+ * or executing a statement is a plain virtual call without argument boxing or reflection.
+ */
+@ManagedResource(description = "Statement latency statistics of the data source")
+public class InstrumentedDataSource extends DelegatingDataSource {
+
+    private static final Logger logger = LoggerFactory.getLogger(InstrumentedDataSource.class);
+
+    private static final String UNKNOWN_STATEMENT = "<unknown>";
+    private static final String OTHER_STATEMENTS = "<other>";
+
+    private final LatencyHistogram totalHistogram = new LatencyHistogram();
+    private final ConcurrentMap<String, LatencyHistogram> statementHistograms = new ConcurrentHashMap<>();
+
+    private volatile int sqlLogSampleRate = 0;
+    private int maxTrackedStatements = 1000;
+
+    private final List<StatementExecutionListener> listeners = new CopyOnWriteArrayList<>();
+    private volatile boolean bindValuesRequired;
+    private final List<StatementExecutionGuard> guards = new CopyOnWriteArrayList<>();
+
+    public InstrumentedDataSource(DataSource targetDataSource) {
+        super(targetDataSource);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return new InstrumentedConnection(getTargetDataSource().getConnection(), this);
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        return new InstrumentedConnection(getTargetDataSource().getConnection(username, password), this);
+    }
+
+    @ManagedAttribute(description = "1 out of N statements is logged with SQL text. 0 means disabled.")
+    public int getSqlLogSampleRate() {
+        return sqlLogSampleRate;
+    }
+
+    @ManagedAttribute
+    public void setSqlLogSampleRate(int sqlLogSampleRate) {
+        this.sqlLogSampleRate = Math.max(sqlLogSampleRate, 0);
+    }
+
+    public void setMaxTrackedStatements(int maxTrackedStatements) {
+        this.maxTrackedStatements = maxTrackedStatements;
+    }
+
+    public void setListeners(List<StatementExecutionListener> listeners) {
+        this.listeners.clear();
+        for (StatementExecutionListener listener : listeners) {
+            addListener(listener);
+        }
+    }
+
+    public void addListener(StatementExecutionListener listener) {
+        listeners.add(listener);
+        bindValuesRequired |= listener.isBindValuesRequired();
+    }
+
+    public void removeListener(StatementExecutionListener listener) {
+        listeners.remove(listener);
+        boolean required = false;
+        for (StatementExecutionListener remaining : listeners) {
+            required |= remaining.isBindValuesRequired();
+        }
+        bindValuesRequired = required;
+    }
+
+    public void setGuards(List<StatementExecutionGuard> guards) {
+        this.guards.clear();
+        this.guards.addAll(guards);
+    }
+
+    public void addGuard(StatementExecutionGuard guard) {
+        guards.add(guard);
+    }
+
+    public void removeGuard(StatementExecutionGuard guard) {
+        guards.remove(guard);
+    }
+
+    @ManagedAttribute(description = "Number of executed statements")
+    public long getStatementCount() {
+        return totalHistogram.getCount();
+    }
+
+    @ManagedAttribute(description = "Latency summary of all statements in microseconds")
+    public String getLatencySummary() {
+        return totalHistogram.summary();
+    }
+
+    @ManagedOperation(description = "Reports latency summaries per statement, ordered by total time")
+    public String reportStatementLatencies() {
+        List<Map.Entry<String, LatencyHistogram>> entries = new ArrayList<>(statementHistograms.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, LatencyHistogram>>() {
+            @Override
+            public int compare(Map.Entry<String, LatencyHistogram> o1, Map.Entry<String, LatencyHistogram> o2) {
+                long t1 = o1.getValue().getTotalNanos();
+                long t2 = o2.getValue().getTotalNanos();
+                return t1 < t2 ? 1 : (t1 == t2 ? 0 : -1);
+            }
+        });
+        StringBuilder report = new StringBuilder();
+        for (Map.Entry<String, LatencyHistogram> entry : entries) {
+            report.append(entry.getValue().summary()).append("\tsql:").append(entry.getKey()).append('\n');
+        }
+        return report.toString();
+    }
+
+    @ManagedOperation(description = "Clears all statistics")
+    public void resetStatistics() {
+        totalHistogram.reset();
+        statementHistograms.clear();
+    }
+
+    public Map<String, LatencyHistogram> getStatementHistograms() {
+        return Collections.unmodifiableMap(statementHistograms);
+    }
+
+    void record(String sql, long elapsedNanos) {
+        String key = sql != null ? sql : UNKNOWN_STATEMENT;
+        totalHistogram.record(elapsedNanos);
+        histogramOf(key).record(elapsedNanos);
+        int sampleRate = sqlLogSampleRate;
+        if (sampleRate > 0 && (sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0)) {
+            logger.info("sql:{}\telapsed:{}us", key, TimeUnit.NANOSECONDS.toMicros(elapsedNanos));
+        }
+    }
+
+    List<StatementExecutionListener> getListeners() {
+        return listeners;
+    }
+
+    boolean isBindValuesRequired() {
+        return bindValuesRequired;
+    }
+
+    List<StatementExecutionGuard> getGuards() {
+        return guards;
+    }
+
+    void fire(StatementExecution execution) {
+        for (StatementExecutionListener listener : listeners) {
+            try {
+                listener.onExecuted(execution);
+            } catch (RuntimeException e) {
+                logger.warn("Statement execution listener failed. listener=" + listener, e);
+            }
+        }
+    }
+
+    private LatencyHistogram histogramOf(String key) {
+        LatencyHistogram histogram = statementHistograms.get(key);
+        if (histogram != null) {
+            return histogram;
+        }
+        if (statementHistograms.size() >= maxTrackedStatements) {
+            key = OTHER_STATEMENTS;
+            histogram = statementHistograms.get(key);
+            if (histogram != null) {
+                return histogram;
+            }
+        }
+        histogram = new LatencyHistogram();
+        LatencyHistogram existing = statementHistograms.putIfAbsent(key, histogram);
+        return existing != null ? existing : histogram;
+    }
+
+}
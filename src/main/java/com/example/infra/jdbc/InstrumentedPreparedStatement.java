@@ -0,0 +1,516 @@
+package com.example.infra.jdbc;
+
+import java.io.InputStream;
+import java.io.Reader;
+import java.math.BigDecimal;
+import java.net.URL;
+import java.sql.Array;
+import java.sql.Blob;
+import java.sql.Clob;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.NClob;
+import java.sql.ParameterMetaData;
+import java.sql.PreparedStatement;
+import java.sql.Ref;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.RowId;
+import java.sql.SQLException;
+import java.sql.SQLXML;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Calendar;
+import java.util.List;
+
+/**
+ * Prepared statement of {@link InstrumentedDataSource}.
+ * <p/>
+ * Bind values set by index are captured into a per-statement array only if a registered listener required them
+ * when the statement was prepared (e.g. not at all while slow query logging is disabled), and are copied only
+ * for the executions a listener requires.
+ */
+@SuppressWarnings("deprecation")
+class InstrumentedPreparedStatement extends InstrumentedStatement implements PreparedStatement {
+
+    private final PreparedStatement preparedStatement;
+    private final boolean bindValuesRequired;
+    private Object[] bindValues;
+    private int bindValueCount;
+
+    InstrumentedPreparedStatement(PreparedStatement preparedStatement, String sql, Connection connection,
+                                  InstrumentedDataSource dataSource) {
+        super(preparedStatement, sql, connection, dataSource);
+        this.preparedStatement = preparedStatement;
+        this.bindValuesRequired = dataSource.isBindValuesRequired();
+    }
+
+    @Override
+    public ResultSet executeQuery() throws SQLException {
+        long start = beforeExecute(sql, true);
+        ResultSet resultSet;
+        long elapsedNanos;
+        try {
+            resultSet = preparedStatement.executeQuery();
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterQuery(sql, elapsedNanos, resultSet);
+    }
+
+    @Override
+    public int executeUpdate() throws SQLException {
+        long start = beforeExecute(sql, false);
+        int updateCount;
+        long elapsedNanos;
+        try {
+            updateCount = preparedStatement.executeUpdate();
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterUpdate(sql, elapsedNanos, updateCount);
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType) throws SQLException {
+        preparedStatement.setNull(parameterIndex, sqlType);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, null);
+        }
+    }
+
+    @Override
+    public void setBoolean(int parameterIndex, boolean x) throws SQLException {
+        preparedStatement.setBoolean(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setByte(int parameterIndex, byte x) throws SQLException {
+        preparedStatement.setByte(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setShort(int parameterIndex, short x) throws SQLException {
+        preparedStatement.setShort(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setInt(int parameterIndex, int x) throws SQLException {
+        preparedStatement.setInt(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setLong(int parameterIndex, long x) throws SQLException {
+        preparedStatement.setLong(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setFloat(int parameterIndex, float x) throws SQLException {
+        preparedStatement.setFloat(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setDouble(int parameterIndex, double x) throws SQLException {
+        preparedStatement.setDouble(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setBigDecimal(int parameterIndex, BigDecimal x) throws SQLException {
+        preparedStatement.setBigDecimal(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setString(int parameterIndex, String x) throws SQLException {
+        preparedStatement.setString(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setBytes(int parameterIndex, byte[] x) throws SQLException {
+        preparedStatement.setBytes(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x) throws SQLException {
+        preparedStatement.setDate(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x) throws SQLException {
+        preparedStatement.setTime(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x) throws SQLException {
+        preparedStatement.setTimestamp(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        preparedStatement.setAsciiStream(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setUnicodeStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        preparedStatement.setUnicodeStream(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, int length) throws SQLException {
+        preparedStatement.setBinaryStream(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void clearParameters() throws SQLException {
+        preparedStatement.clearParameters();
+        clearBindValues();
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType) throws SQLException {
+        preparedStatement.setObject(parameterIndex, x, targetSqlType);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x) throws SQLException {
+        preparedStatement.setObject(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public boolean execute() throws SQLException {
+        long start = beforeExecute(sql, true);
+        boolean hasResultSet;
+        long elapsedNanos;
+        try {
+            hasResultSet = preparedStatement.execute();
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterExecute(sql, elapsedNanos, hasResultSet);
+    }
+
+    @Override
+    public void addBatch() throws SQLException {
+        preparedStatement.addBatch();
+        batchSize++;
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x, int length) throws SQLException {
+        preparedStatement.setCharacterStream(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setRef(int parameterIndex, Ref x) throws SQLException {
+        preparedStatement.setRef(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, Blob x) throws SQLException {
+        preparedStatement.setBlob(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Clob x) throws SQLException {
+        preparedStatement.setClob(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setArray(int parameterIndex, Array x) throws SQLException {
+        preparedStatement.setArray(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public ResultSetMetaData getMetaData() throws SQLException {
+        return preparedStatement.getMetaData();
+    }
+
+    @Override
+    public void setDate(int parameterIndex, Date x, Calendar cal) throws SQLException {
+        preparedStatement.setDate(parameterIndex, x, cal);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setTime(int parameterIndex, Time x, Calendar cal) throws SQLException {
+        preparedStatement.setTime(parameterIndex, x, cal);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setTimestamp(int parameterIndex, Timestamp x, Calendar cal) throws SQLException {
+        preparedStatement.setTimestamp(parameterIndex, x, cal);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setNull(int parameterIndex, int sqlType, String typeName) throws SQLException {
+        preparedStatement.setNull(parameterIndex, sqlType, typeName);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, null);
+        }
+    }
+
+    @Override
+    public void setURL(int parameterIndex, URL x) throws SQLException {
+        preparedStatement.setURL(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public ParameterMetaData getParameterMetaData() throws SQLException {
+        return preparedStatement.getParameterMetaData();
+    }
+
+    @Override
+    public void setRowId(int parameterIndex, RowId x) throws SQLException {
+        preparedStatement.setRowId(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setNString(int parameterIndex, String x) throws SQLException {
+        preparedStatement.setNString(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
+        preparedStatement.setNCharacterStream(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, NClob x) throws SQLException {
+        preparedStatement.setNClob(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader x, long length) throws SQLException {
+        preparedStatement.setClob(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream x, long length) throws SQLException {
+        preparedStatement.setBlob(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader x, long length) throws SQLException {
+        preparedStatement.setNClob(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setSQLXML(int parameterIndex, SQLXML x) throws SQLException {
+        preparedStatement.setSQLXML(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setObject(int parameterIndex, Object x, int targetSqlType, int scaleOrLength) throws SQLException {
+        preparedStatement.setObject(parameterIndex, x, targetSqlType, scaleOrLength);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        preparedStatement.setAsciiStream(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x, long length) throws SQLException {
+        preparedStatement.setBinaryStream(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x, long length) throws SQLException {
+        preparedStatement.setCharacterStream(parameterIndex, x, length);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setAsciiStream(int parameterIndex, InputStream x) throws SQLException {
+        preparedStatement.setAsciiStream(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setBinaryStream(int parameterIndex, InputStream x) throws SQLException {
+        preparedStatement.setBinaryStream(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setCharacterStream(int parameterIndex, Reader x) throws SQLException {
+        preparedStatement.setCharacterStream(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setNCharacterStream(int parameterIndex, Reader x) throws SQLException {
+        preparedStatement.setNCharacterStream(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setClob(int parameterIndex, Reader x) throws SQLException {
+        preparedStatement.setClob(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setBlob(int parameterIndex, InputStream x) throws SQLException {
+        preparedStatement.setBlob(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    public void setNClob(int parameterIndex, Reader x) throws SQLException {
+        preparedStatement.setNClob(parameterIndex, x);
+        if (bindValuesRequired) {
+            captureBindValue(parameterIndex, x);
+        }
+    }
+
+    @Override
+    protected List<Object> capturedBindValues() {
+        return bindValues != null ? Arrays.asList(Arrays.copyOf(bindValues, bindValueCount)) : null;
+    }
+
+    private void captureBindValue(int index, Object value) {
+        if (bindValues == null) {
+            bindValues = new Object[Math.max(index, 8)];
+        } else if (bindValues.length < index) {
+            bindValues = Arrays.copyOf(bindValues, Math.max(index, bindValues.length * 2));
+        }
+        bindValues[index - 1] = value;
+        bindValueCount = Math.max(bindValueCount, index);
+    }
+
+    private void clearBindValues() {
+        if (bindValues != null) {
+            Arrays.fill(bindValues, 0, bindValueCount, null);
+            bindValueCount = 0;
+        }
+    }
+
+}
@@ -0,0 +1,476 @@
+package com.example.infra.jdbc;
+
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.SQLWarning;
+import java.sql.Statement;
+import java.util.List;
+
+/**
+ * Statement of {@link InstrumentedDataSource} that applies the guards and the fetch size before an execution,
+ * records its latency, and notifies the listeners that require it.
+ * <p/>
+ * A query is notified when its result set or the statement is closed (or the statement is executed again),
+ * so that the notification carries the number of rows read.
+ */
+class InstrumentedStatement implements Statement {
+
+    private final Statement statement;
+    protected final String sql;
+    private final Connection connection;
+    private final InstrumentedDataSource dataSource;
+    protected int batchSize;
+    private StatementExecution pendingExecution;
+
+    InstrumentedStatement(Statement statement, Connection connection, InstrumentedDataSource dataSource) {
+        this(statement, null, connection, dataSource);
+    }
+
+    protected InstrumentedStatement(Statement statement, String sql, Connection connection, InstrumentedDataSource dataSource) {
+        this.statement = statement;
+        this.sql = sql;
+        this.connection = connection;
+        this.dataSource = dataSource;
+    }
+
+    @Override
+    public ResultSet executeQuery(String sql) throws SQLException {
+        long start = beforeExecute(sql, true);
+        ResultSet resultSet;
+        long elapsedNanos;
+        try {
+            resultSet = statement.executeQuery(sql);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterQuery(sql, elapsedNanos, resultSet);
+    }
+
+    @Override
+    public int executeUpdate(String sql) throws SQLException {
+        long start = beforeExecute(sql, false);
+        int updateCount;
+        long elapsedNanos;
+        try {
+            updateCount = statement.executeUpdate(sql);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterUpdate(sql, elapsedNanos, updateCount);
+    }
+
+    @Override
+    public void close() throws SQLException {
+        firePendingExecution();
+        statement.close();
+    }
+
+    @Override
+    public int getMaxFieldSize() throws SQLException {
+        return statement.getMaxFieldSize();
+    }
+
+    @Override
+    public void setMaxFieldSize(int max) throws SQLException {
+        statement.setMaxFieldSize(max);
+    }
+
+    @Override
+    public int getMaxRows() throws SQLException {
+        return statement.getMaxRows();
+    }
+
+    @Override
+    public void setMaxRows(int max) throws SQLException {
+        statement.setMaxRows(max);
+    }
+
+    @Override
+    public void setEscapeProcessing(boolean enable) throws SQLException {
+        statement.setEscapeProcessing(enable);
+    }
+
+    @Override
+    public int getQueryTimeout() throws SQLException {
+        return statement.getQueryTimeout();
+    }
+
+    @Override
+    public void setQueryTimeout(int seconds) throws SQLException {
+        statement.setQueryTimeout(seconds);
+    }
+
+    @Override
+    public void cancel() throws SQLException {
+        statement.cancel();
+    }
+
+    @Override
+    public SQLWarning getWarnings() throws SQLException {
+        return statement.getWarnings();
+    }
+
+    @Override
+    public void clearWarnings() throws SQLException {
+        statement.clearWarnings();
+    }
+
+    @Override
+    public void setCursorName(String name) throws SQLException {
+        statement.setCursorName(name);
+    }
+
+    @Override
+    public boolean execute(String sql) throws SQLException {
+        long start = beforeExecute(sql, true);
+        boolean hasResultSet;
+        long elapsedNanos;
+        try {
+            hasResultSet = statement.execute(sql);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterExecute(sql, elapsedNanos, hasResultSet);
+    }
+
+    @Override
+    public ResultSet getResultSet() throws SQLException {
+        return wrapResultSet(statement.getResultSet());
+    }
+
+    @Override
+    public int getUpdateCount() throws SQLException {
+        return statement.getUpdateCount();
+    }
+
+    @Override
+    public boolean getMoreResults() throws SQLException {
+        return statement.getMoreResults();
+    }
+
+    @Override
+    public void setFetchDirection(int direction) throws SQLException {
+        statement.setFetchDirection(direction);
+    }
+
+    @Override
+    public int getFetchDirection() throws SQLException {
+        return statement.getFetchDirection();
+    }
+
+    @Override
+    public void setFetchSize(int rows) throws SQLException {
+        statement.setFetchSize(rows);
+    }
+
+    @Override
+    public int getFetchSize() throws SQLException {
+        return statement.getFetchSize();
+    }
+
+    @Override
+    public int getResultSetConcurrency() throws SQLException {
+        return statement.getResultSetConcurrency();
+    }
+
+    @Override
+    public int getResultSetType() throws SQLException {
+        return statement.getResultSetType();
+    }
+
+    @Override
+    public void addBatch(String sql) throws SQLException {
+        statement.addBatch(sql);
+        batchSize++;
+    }
+
+    @Override
+    public void clearBatch() throws SQLException {
+        statement.clearBatch();
+        batchSize = 0;
+    }
+
+    @Override
+    public int[] executeBatch() throws SQLException {
+        long start = beforeExecute(sql, false);
+        int[] updateCounts;
+        long elapsedNanos;
+        try {
+            updateCounts = statement.executeBatch();
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterBatch(sql, elapsedNanos, updateCounts);
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        return connection;
+    }
+
+    @Override
+    public boolean getMoreResults(int current) throws SQLException {
+        return statement.getMoreResults(current);
+    }
+
+    @Override
+    public ResultSet getGeneratedKeys() throws SQLException {
+        return statement.getGeneratedKeys();
+    }
+
+    @Override
+    public int executeUpdate(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = beforeExecute(sql, false);
+        int updateCount;
+        long elapsedNanos;
+        try {
+            updateCount = statement.executeUpdate(sql, autoGeneratedKeys);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterUpdate(sql, elapsedNanos, updateCount);
+    }
+
+    @Override
+    public int executeUpdate(String sql, int[] columnIndexes) throws SQLException {
+        long start = beforeExecute(sql, false);
+        int updateCount;
+        long elapsedNanos;
+        try {
+            updateCount = statement.executeUpdate(sql, columnIndexes);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterUpdate(sql, elapsedNanos, updateCount);
+    }
+
+    @Override
+    public int executeUpdate(String sql, String[] columnNames) throws SQLException {
+        long start = beforeExecute(sql, false);
+        int updateCount;
+        long elapsedNanos;
+        try {
+            updateCount = statement.executeUpdate(sql, columnNames);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterUpdate(sql, elapsedNanos, updateCount);
+    }
+
+    @Override
+    public boolean execute(String sql, int autoGeneratedKeys) throws SQLException {
+        long start = beforeExecute(sql, true);
+        boolean hasResultSet;
+        long elapsedNanos;
+        try {
+            hasResultSet = statement.execute(sql, autoGeneratedKeys);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterExecute(sql, elapsedNanos, hasResultSet);
+    }
+
+    @Override
+    public boolean execute(String sql, int[] columnIndexes) throws SQLException {
+        long start = beforeExecute(sql, true);
+        boolean hasResultSet;
+        long elapsedNanos;
+        try {
+            hasResultSet = statement.execute(sql, columnIndexes);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterExecute(sql, elapsedNanos, hasResultSet);
+    }
+
+    @Override
+    public boolean execute(String sql, String[] columnNames) throws SQLException {
+        long start = beforeExecute(sql, true);
+        boolean hasResultSet;
+        long elapsedNanos;
+        try {
+            hasResultSet = statement.execute(sql, columnNames);
+        } finally {
+            elapsedNanos = recordElapsed(sql, start);
+        }
+        return afterExecute(sql, elapsedNanos, hasResultSet);
+    }
+
+    @Override
+    public int getResultSetHoldability() throws SQLException {
+        return statement.getResultSetHoldability();
+    }
+
+    @Override
+    public boolean isClosed() throws SQLException {
+        return statement.isClosed();
+    }
+
+    @Override
+    public void setPoolable(boolean poolable) throws SQLException {
+        statement.setPoolable(poolable);
+    }
+
+    @Override
+    public boolean isPoolable() throws SQLException {
+        return statement.isPoolable();
+    }
+
+    @Override
+    public void closeOnCompletion() throws SQLException {
+        statement.closeOnCompletion();
+    }
+
+    @Override
+    public boolean isCloseOnCompletion() throws SQLException {
+        return statement.isCloseOnCompletion();
+    }
+
+    @Override
+    public <T> T unwrap(Class<T> iface) throws SQLException {
+        if (iface.isInstance(this)) {
+            return iface.cast(this);
+        }
+        return statement.unwrap(iface);
+    }
+
+    @Override
+    public boolean isWrapperFor(Class<?> iface) throws SQLException {
+        return iface.isInstance(this) || statement.isWrapperFor(iface);
+    }
+
+    /**
+     * Returns the bind values of the current execution, or {@code null} if they are not captured.
+     */
+    protected List<Object> capturedBindValues() {
+        return null;
+    }
+
+    protected final long beforeExecute(String sql, boolean query) throws SQLException {
+        firePendingExecution();
+        for (StatementExecutionGuard guard : dataSource.getGuards()) {
+            guard.beforeExecute(sql);
+        }
+        int fetchSize = FetchSizeContext.getCurrentFetchSize();
+        if (fetchSize > 0 && query) {
+            statement.setFetchSize(fetchSize);
+        }
+        return System.nanoTime();
+    }
+
+    protected final long recordElapsed(String sql, long start) {
+        long elapsedNanos = System.nanoTime() - start;
+        dataSource.record(sql, elapsedNanos);
+        return elapsedNanos;
+    }
+
+    protected final ResultSet afterQuery(String sql, long elapsedNanos, ResultSet resultSet) {
+        pendingExecution = newExecution(sql, StatementExecution.Kind.QUERY, elapsedNanos, 0);
+        return wrapResultSet(resultSet);
+    }
+
+    protected final int afterUpdate(String sql, long elapsedNanos, int updateCount) {
+        StatementExecution execution = newExecution(sql, StatementExecution.Kind.UPDATE, elapsedNanos, 0);
+        if (execution != null) {
+            execution.addRowCount(updateCount);
+            dataSource.fire(execution);
+        }
+        return updateCount;
+    }
+
+    protected final int[] afterBatch(String sql, long elapsedNanos, int[] updateCounts) {
+        StatementExecution execution = newExecution(sql, StatementExecution.Kind.BATCH, elapsedNanos, batchSize);
+        batchSize = 0;
+        if (execution != null) {
+            for (int count : updateCounts) {
+                execution.addRowCount(Math.max(count, 0));
+            }
+            dataSource.fire(execution);
+        }
+        return updateCounts;
+    }
+
+    protected final boolean afterExecute(String sql, long elapsedNanos, boolean hasResultSet) throws SQLException {
+        if (hasResultSet) {
+            pendingExecution = newExecution(sql, StatementExecution.Kind.QUERY, elapsedNanos, 0);
+            return true;
+        }
+        StatementExecution execution = newExecution(sql, StatementExecution.Kind.OTHER, elapsedNanos, 0);
+        if (execution != null) {
+            execution.addRowCount(Math.max(statement.getUpdateCount(), 0));
+            dataSource.fire(execution);
+        }
+        return false;
+    }
+
+    /**
+     * Returns the details of an execution, or {@code null} if no listener requires it.
+     */
+    private StatementExecution newExecution(String sql, StatementExecution.Kind kind, long elapsedNanos, int batchSize) {
+        List<StatementExecutionListener> listeners = dataSource.getListeners();
+        if (listeners.isEmpty()) {
+            return null;
+        }
+        boolean executionRequired = false;
+        boolean bindValuesWanted = false;
+        for (StatementExecutionListener listener : listeners) {
+            if (listener.isExecutionRequired(elapsedNanos)) {
+                executionRequired = true;
+                bindValuesWanted |= listener.isBindValuesRequired();
+            }
+        }
+        if (!executionRequired) {
+            return null;
+        }
+        return new StatementExecution(sql, kind, elapsedNanos, bindValuesWanted ? capturedBindValues() : null, batchSize);
+    }
+
+    private ResultSet wrapResultSet(ResultSet resultSet) {
+        if (resultSet == null || pendingExecution == null) {
+            return resultSet;
+        }
+        return new RowCountingResultSet(resultSet, this);
+    }
+
+    private void firePendingExecution() {
+        if (pendingExecution != null) {
+            StatementExecution execution = pendingExecution;
+            pendingExecution = null;
+            dataSource.fire(execution);
+        }
+    }
+
+    /**
+     * Counts the rows read for the pending execution, and fires it when the result set is closed.
+     */
+    private static class RowCountingResultSet extends DelegatingResultSet {
+
+        private final InstrumentedStatement statement;
+        private final StatementExecution execution;
+
+        private RowCountingResultSet(ResultSet target, InstrumentedStatement statement) {
+            super(target);
+            this.statement = statement;
+            this.execution = statement.pendingExecution;
+        }
+
+        @Override
+        public boolean next() throws SQLException {
+            boolean hasNext = target.next();
+            if (hasNext) {
+                execution.addRowCount(1);
+            }
+            return hasNext;
+        }
+
+        @Override
+        public void close() throws SQLException {
+            target.close();
+            if (statement.pendingExecution == execution) {
+                statement.firePendingExecution();
+            }
+        }
+    }
+
+}
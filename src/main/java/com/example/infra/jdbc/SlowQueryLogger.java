@@ -0,0 +1,207 @@
+package com.example.infra.jdbc;
+
+import com.example.infra.concurrent.BoundedRingBuffer;
+import com.example.infra.monitoring.RepositoryInvocationContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.slf4j.MDC;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Listener that writes statements slower than the threshold into the slow query log.
+ * <p/>
+ * Records are handed to a writer thread through a bounded lock-free queue, so capturing never blocks
+ * the thread that executed the statement. When the queue is full, records are dropped and counted.
+ * <p/>
+ * Only statements slower than the threshold are recorded by {@link InstrumentedDataSource}, and their bind values
+ * are copied only then. When disabled ({@code jdbc.slowQuery.enabled=false}), bind values are not captured at all.
+ */
+@ManagedResource(description = "Slow query log")
+public class SlowQueryLogger implements StatementExecutionListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SlowQueryLogger.class);
+
+    private static final Logger slowQueryLogger = LoggerFactory.getLogger(SlowQueryLogger.class.getName() + ".SlowQuery");
+
+    private static final String X_TRACK_KEY = "X-Track";
+
+    private static final int MAX_BIND_VALUE_LENGTH = 100;
+
+    private final AtomicLong capturedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+
+    private boolean enabled = true;
+    private volatile long thresholdNanos = TimeUnit.MILLISECONDS.toNanos(1000);
+    private int queueCapacity = 4096;
+
+    private BoundedRingBuffer<SlowQuery> queue;
+    private Thread writer;
+    private volatile boolean running;
+
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        queue = new BoundedRingBuffer<>(queueCapacity);
+        running = true;
+        writer = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                writeContinuously();
+            }
+        }, "slow-query-log-writer");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    public void close() throws InterruptedException {
+        if (writer == null) {
+            return;
+        }
+        running = false;
+        LockSupport.unpark(writer);
+        writer.join();
+        writeAll();
+    }
+
+    @Override
+    public boolean isBindValuesRequired() {
+        return enabled;
+    }
+
+    @Override
+    public boolean isExecutionRequired(long elapsedNanos) {
+        return enabled && elapsedNanos >= thresholdNanos;
+    }
+
+    @Override
+    public void onExecuted(StatementExecution execution) {
+        if (execution.getElapsedNanos() < thresholdNanos || queue == null) {
+            return;
+        }
+        SlowQuery slowQuery = new SlowQuery(execution, RepositoryInvocationContext.getCurrentMethod(), MDC.get(X_TRACK_KEY));
+        if (queue.offer(slowQuery)) {
+            capturedCount.incrementAndGet();
+            LockSupport.unpark(writer);
+        } else {
+            droppedCount.incrementAndGet();
+        }
+    }
+
+    /**
+     * Sets whether slow queries are logged. This cannot be changed after the logger has been registered
+     * with {@link InstrumentedDataSource}, because bind values are captured depending on it.
+     */
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    @ManagedAttribute(description = "Whether slow queries are logged")
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @ManagedAttribute(description = "Threshold of the slow query in milliseconds")
+    public long getThresholdMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(thresholdNanos);
+    }
+
+    @ManagedAttribute
+    public void setThresholdMillis(long thresholdMillis) {
+        this.thresholdNanos = TimeUnit.MILLISECONDS.toNanos(thresholdMillis);
+    }
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    @ManagedAttribute(description = "Number of captured slow queries")
+    public long getCapturedCount() {
+        return capturedCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of slow queries dropped because the queue was full")
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of slow queries waiting to be written")
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    private void writeContinuously() {
+        while (running) {
+            if (!writeAll()) {
+                LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+            }
+        }
+    }
+
+    private boolean writeAll() {
+        List<SlowQuery> slowQueries = new ArrayList<>();
+        if (queue.drainTo(slowQueries, Integer.MAX_VALUE) == 0) {
+            return false;
+        }
+        for (SlowQuery slowQuery : slowQueries) {
+            try {
+                write(slowQuery);
+            } catch (RuntimeException e) {
+                logger.warn("Failed to write a slow query log.", e);
+            }
+        }
+        return true;
+    }
+
+    private void write(SlowQuery slowQuery) {
+        if (slowQuery.xTrack != null) {
+            MDC.put(X_TRACK_KEY, slowQuery.xTrack);
+        }
+        try {
+            StatementExecution execution = slowQuery.execution;
+            slowQueryLogger.warn("elapsed:{}ms\trows:{}\trepository:{}\tthread:{}\tsql:{}\tbinds:{}",
+                    TimeUnit.NANOSECONDS.toMillis(execution.getElapsedNanos()), execution.getRowCount(),
+                    slowQuery.repositoryMethod, slowQuery.threadName, execution.getSql(),
+                    formatBindValues(execution.getBindValues()));
+        } finally {
+            MDC.remove(X_TRACK_KEY);
+        }
+    }
+
+    private static String formatBindValues(List<Object> bindValues) {
+        StringBuilder formatted = new StringBuilder("[");
+        for (int i = 0; i < bindValues.size(); i++) {
+            if (i > 0) {
+                formatted.append(", ");
+            }
+            String value = String.valueOf(bindValues.get(i));
+            if (value.length() > MAX_BIND_VALUE_LENGTH) {
+                value = value.substring(0, MAX_BIND_VALUE_LENGTH) + "...";
+            }
+            formatted.append(value);
+        }
+        return formatted.append(']').toString();
+    }
+
+    private static class SlowQuery {
+        private final StatementExecution execution;
+        private final String repositoryMethod;
+        private final String xTrack;
+        private final String threadName;
+
+        private SlowQuery(StatementExecution execution, String repositoryMethod, String xTrack) {
+            this.execution = execution;
+            this.repositoryMethod = repositoryMethod;
+            this.xTrack = xTrack;
+            this.threadName = Thread.currentThread().getName();
+        }
+    }
+
+}
@@ -0,0 +1,256 @@
+package com.example.infra.jdbc;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per-request budget of statements, rows and DB time.
+ * <p/>
+ * A request is tracked between {@link #begin(String)} and {@link #end()} on the processing thread.
+ * A request that exceeds a limit is logged and counted against its handler (top offenders).
+ * In strict mode, statements issued after a limit has been exceeded are rejected with a {@link SQLException}.
+ * A limit of 0 or less disables the limit.
+ */
+@ManagedResource(description = "Per-request SQL budget")
+public class SqlBudgetGuard implements StatementExecutionListener, StatementExecutionGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(SqlBudgetGuard.class);
+
+    private static final String SQL_STATE_LIMIT_EXCEEDED = "54000";
+
+    private static final ThreadLocal<SqlBudgetUsage> currentUsage = new ThreadLocal<>();
+
+    private volatile int maxStatements = 100;
+    private volatile long maxRows = 10000;
+    private volatile long maxDbTimeNanos = TimeUnit.SECONDS.toNanos(3);
+    private volatile boolean strict;
+
+    private final AtomicLong exceededCount = new AtomicLong();
+    private final AtomicLong rejectedCount = new AtomicLong();
+    private final ConcurrentMap<String, Offender> offenders = new ConcurrentHashMap<>();
+
+    /**
+     * Starts tracking a request processed by the specified handler on the current thread.
+     */
+    public void begin(String handler) {
+        currentUsage.set(new SqlBudgetUsage(handler));
+    }
+
+    /**
+     * Stops tracking the request on the current thread.
+     *
+     * @return usage of the request, or {@code null} if no request is tracked
+     */
+    public SqlBudgetUsage end() {
+        SqlBudgetUsage usage = currentUsage.get();
+        if (usage == null) {
+            return null;
+        }
+        currentUsage.remove();
+        if (isExceeded(usage)) {
+            exceededCount.incrementAndGet();
+            offenderOf(usage.getHandler()).record(usage);
+            logger.warn("SQL budget exceeded. handler:{}\tstatements:{}\trows:{}\tdbTime:{}ms\trejected:{}",
+                    usage.getHandler(), usage.getStatementCount(), usage.getRowCount(),
+                    usage.getDbTimeMillis(), usage.isRejected());
+        }
+        return usage;
+    }
+
+    /**
+     * Returns the usage of the request tracked on the current thread, or {@code null}.
+     */
+    public static SqlBudgetUsage getCurrentUsage() {
+        return currentUsage.get();
+    }
+
+    @Override
+    public void beforeExecute(String sql) throws SQLException {
+        SqlBudgetUsage usage = currentUsage.get();
+        if (usage == null) {
+            return;
+        }
+        usage.addStatement();
+        if (strict && isExceeded(usage)) {
+            usage.reject();
+            rejectedCount.incrementAndGet();
+            throw new SQLException("SQL budget exceeded. handler:" + usage.getHandler()
+                    + " statements:" + usage.getStatementCount() + " rows:" + usage.getRowCount()
+                    + " dbTime:" + usage.getDbTimeMillis() + "ms", SQL_STATE_LIMIT_EXCEEDED);
+        }
+    }
+
+    @Override
+    public boolean isBindValuesRequired() {
+        return false;
+    }
+
+    @Override
+    public boolean isExecutionRequired(long elapsedNanos) {
+        return currentUsage.get() != null;
+    }
+
+    @Override
+    public void onExecuted(StatementExecution execution) {
+        SqlBudgetUsage usage = currentUsage.get();
+        if (usage != null) {
+            usage.addExecution(execution);
+        }
+    }
+
+    @ManagedAttribute(description = "Maximum number of statements per request")
+    public int getMaxStatements() {
+        return maxStatements;
+    }
+
+    @ManagedAttribute
+    public void setMaxStatements(int maxStatements) {
+        this.maxStatements = maxStatements;
+    }
+
+    @ManagedAttribute(description = "Maximum number of fetched or updated rows per request")
+    public long getMaxRows() {
+        return maxRows;
+    }
+
+    @ManagedAttribute
+    public void setMaxRows(long maxRows) {
+        this.maxRows = maxRows;
+    }
+
+    @ManagedAttribute(description = "Maximum DB time per request in milliseconds")
+    public long getMaxDbTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxDbTimeNanos);
+    }
+
+    @ManagedAttribute
+    public void setMaxDbTimeMillis(long maxDbTimeMillis) {
+        this.maxDbTimeNanos = TimeUnit.MILLISECONDS.toNanos(maxDbTimeMillis);
+    }
+
+    @ManagedAttribute(description = "Whether statements exceeding the budget are rejected")
+    public boolean isStrict() {
+        return strict;
+    }
+
+    @ManagedAttribute
+    public void setStrict(boolean strict) {
+        this.strict = strict;
+    }
+
+    @ManagedAttribute(description = "Number of requests that exceeded the budget")
+    public long getExceededCount() {
+        return exceededCount.get();
+    }
+
+    @ManagedAttribute(description = "Number of statements rejected in strict mode")
+    public long getRejectedCount() {
+        return rejectedCount.get();
+    }
+
+    @ManagedOperation(description = "Reports the handlers that exceeded the budget most often")
+    public String reportTopOffenders() {
+        StringBuilder report = new StringBuilder();
+        for (Map<String, Object> offender : getTopOffenders(20)) {
+            report.append(offender).append('\n');
+        }
+        return report.toString();
+    }
+
+    @ManagedOperation(description = "Clears the counters and top offenders")
+    public void reset() {
+        exceededCount.set(0);
+        rejectedCount.set(0);
+        offenders.clear();
+    }
+
+    /**
+     * Returns the handlers that exceeded the budget, ordered by the number of exceeded requests.
+     */
+    public List<Map<String, Object>> getTopOffenders(int limit) {
+        List<Map.Entry<String, Offender>> entries = new ArrayList<>(offenders.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Offender>>() {
+            @Override
+            public int compare(Map.Entry<String, Offender> o1, Map.Entry<String, Offender> o2) {
+                long c1 = o1.getValue().getExceededCount();
+                long c2 = o2.getValue().getExceededCount();
+                return c1 < c2 ? 1 : (c1 == c2 ? 0 : -1);
+            }
+        });
+        List<Map<String, Object>> topOffenders = new ArrayList<>();
+        for (Map.Entry<String, Offender> entry : entries.subList(0, Math.min(limit, entries.size()))) {
+            topOffenders.add(entry.getValue().toMap(entry.getKey()));
+        }
+        return topOffenders;
+    }
+
+    private boolean isExceeded(SqlBudgetUsage usage) {
+        int statementLimit = maxStatements;
+        long rowLimit = maxRows;
+        long dbTimeLimit = maxDbTimeNanos;
+        return (statementLimit > 0 && usage.getStatementCount() > statementLimit)
+                || (rowLimit > 0 && usage.getRowCount() > rowLimit)
+                || (dbTimeLimit > 0 && usage.getDbTimeNanos() > dbTimeLimit);
+    }
+
+    private Offender offenderOf(String handler) {
+        Offender offender = offenders.get(handler);
+        if (offender == null) {
+            offender = new Offender();
+            Offender existing = offenders.putIfAbsent(handler, offender);
+            if (existing != null) {
+                offender = existing;
+            }
+        }
+        return offender;
+    }
+
+    private static class Offender {
+        private long exceededCount;
+        private long rejectedCount;
+        private int maxStatementCount;
+        private long maxRowCount;
+        private long maxDbTimeMillis;
+
+        private synchronized void record(SqlBudgetUsage usage) {
+            exceededCount++;
+            if (usage.isRejected()) {
+                rejectedCount++;
+            }
+            maxStatementCount = Math.max(maxStatementCount, usage.getStatementCount());
+            maxRowCount = Math.max(maxRowCount, usage.getRowCount());
+            maxDbTimeMillis = Math.max(maxDbTimeMillis, usage.getDbTimeMillis());
+        }
+
+        private synchronized long getExceededCount() {
+            return exceededCount;
+        }
+
+        private synchronized Map<String, Object> toMap(String handler) {
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("handler", handler);
+            values.put("exceededCount", exceededCount);
+            values.put("rejectedCount", rejectedCount);
+            values.put("maxStatementCount", maxStatementCount);
+            values.put("maxRowCount", maxRowCount);
+            values.put("maxDbTimeMillis", maxDbTimeMillis);
+            return values;
+        }
+    }
+
+}
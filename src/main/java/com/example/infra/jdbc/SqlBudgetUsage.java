@@ -0,0 +1,62 @@
+package com.example.infra.jdbc;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * SQL usage (statements, fetched/updated rows and DB time) of a request.
+ * <p/>
+ * An instance is confined to the thread that processes the request.
+ */
+public class SqlBudgetUsage {
+
+    private final String handler;
+    private int statementCount;
+    private long rowCount;
+    private long dbTimeNanos;
+    private boolean rejected;
+
+    SqlBudgetUsage(String handler) {
+        this.handler = handler;
+    }
+
+    public String getHandler() {
+        return handler;
+    }
+
+    public int getStatementCount() {
+        return statementCount;
+    }
+
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    public long getDbTimeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(dbTimeNanos);
+    }
+
+    /**
+     * Returns whether a statement of the request was rejected in strict mode.
+     */
+    public boolean isRejected() {
+        return rejected;
+    }
+
+    long getDbTimeNanos() {
+        return dbTimeNanos;
+    }
+
+    void addStatement() {
+        statementCount++;
+    }
+
+    void addExecution(StatementExecution execution) {
+        rowCount += execution.getRowCount();
+        dbTimeNanos += execution.getElapsedNanos();
+    }
+
+    void reject() {
+        rejected = true;
+    }
+
+}
@@ -0,0 +1,70 @@
+package com.example.infra.jdbc;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Information of one statement execution.
+ */
+public class StatementExecution {
+
+    /**
+     * Kind of statement execution.
+     */
+    public enum Kind {
+        QUERY, UPDATE, BATCH, OTHER
+    }
+
+    private final String sql;
+    private final Kind kind;
+    private final long elapsedNanos;
+    private final List<Object> bindValues;
+    private final int batchSize;
+    private long rowCount;
+
+    StatementExecution(String sql, Kind kind, long elapsedNanos, List<Object> bindValues, int batchSize) {
+        this.sql = sql;
+        this.kind = kind;
+        this.elapsedNanos = elapsedNanos;
+        this.bindValues = bindValues;
+        this.batchSize = batchSize;
+    }
+
+    public String getSql() {
+        return sql;
+    }
+
+    public Kind getKind() {
+        return kind;
+    }
+
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * Returns bind values of the last execution, or an empty list if bind values were not captured.
+     */
+    public List<Object> getBindValues() {
+        return bindValues == null ? Collections.<Object>emptyList() : Collections.unmodifiableList(bindValues);
+    }
+
+    /**
+     * Returns number of statements in the batch (0 if the execution is not a batch).
+     */
+    public int getBatchSize() {
+        return batchSize;
+    }
+
+    /**
+     * Returns number of fetched rows for queries, or number of affected rows for updates and batches.
+     */
+    public long getRowCount() {
+        return rowCount;
+    }
+
+    void addRowCount(long count) {
+        this.rowCount += count;
+    }
+
+}
@@ -0,0 +1,19 @@
+package com.example.infra.jdbc;
+
+import java.sql.SQLException;
+
+/**
+ * Guard that is consulted before a statement is executed through {@link InstrumentedDataSource}.
+ * <p/>
+ * Guards are called on the thread that executes the statement, so implementations must return quickly.
+ */
+public interface StatementExecutionGuard {
+
+    /**
+     * Called before a statement is executed.
+     *
+     * @throws SQLException to reject the execution
+     */
+    void beforeExecute(String sql) throws SQLException;
+
+}
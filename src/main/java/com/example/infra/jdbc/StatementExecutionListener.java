@@ -0,0 +1,28 @@
+package com.example.infra.jdbc;
+
+/**
+ * Listener that is notified of statements executed through {@link InstrumentedDataSource}.
+ * <p/>
+ * Listeners are called on the thread that executed the statement, so implementations must return quickly.
+ */
+public interface StatementExecutionListener {
+
+    /**
+     * Returns whether bind values of prepared statements should be captured for this listener.
+     */
+    boolean isBindValuesRequired();
+
+    /**
+     * Returns whether this listener needs the execution that took {@code elapsedNanos}. Called on the thread that
+     * executed the statement right after the execution. If no listener needs it, no {@link StatementExecution}
+     * is created (and rows of queries are not counted).
+     */
+    boolean isExecutionRequired(long elapsedNanos);
+
+    /**
+     * Called after a statement has been executed, if any listener needs the execution. For queries, this is called when the result set is closed,
+     * so that the number of fetched rows is available.
+     */
+    void onExecuted(StatementExecution execution);
+
+}
@@ -0,0 +1,40 @@
+package com.example.infra.jfr;
+
+/**
+ * Event of a {@link JfrEventType} that has begun.
+ * <p/>
+ * The duration of the event is the time between {@link JfrEventType#begin()} and {@link #commit()}.
+ */
+public final class JfrEvent {
+
+    static final JfrEvent DISABLED = new JfrEvent(null, null);
+
+    private final JfrEventType type;
+    private final Object event;
+
+    JfrEvent(JfrEventType type, Object event) {
+        this.type = type;
+        this.event = event;
+    }
+
+    /**
+     * Returns whether this event is recorded. Use this to skip computing field values of a disabled event.
+     */
+    public boolean isRecording() {
+        return event != null;
+    }
+
+    public JfrEvent set(int index, Object value) {
+        if (event != null) {
+            type.set(event, index, value);
+        }
+        return this;
+    }
+
+    public void commit() {
+        if (event != null) {
+            type.commit(event);
+        }
+    }
+
+}
@@ -0,0 +1,150 @@
+package com.example.infra.jfr;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Custom Java Flight Recorder event type defined at runtime.
+ * <p/>
+ * The event type is created through {@code jdk.jfr.EventFactory} by reflection, so the application still runs
+ * on a JVM without the {@code jdk.jfr} module (the event type is then never enabled).
+ * While no recording enables the event type, {@link #begin()} returns a shared no-op event without allocating.
+ */
+public final class JfrEventType {
+
+    private static final Logger logger = LoggerFactory.getLogger(JfrEventType.class);
+
+    private final String name;
+    private final MethodHandle isEnabled;
+    private final MethodHandle newEvent;
+    private final MethodHandle beginEvent;
+    private final MethodHandle setField;
+    private final MethodHandle commitEvent;
+
+    private JfrEventType(String name, MethodHandle isEnabled, MethodHandle newEvent,
+                         MethodHandle beginEvent, MethodHandle setField, MethodHandle commitEvent) {
+        this.name = name;
+        this.isEnabled = isEnabled;
+        this.newEvent = newEvent;
+        this.beginEvent = beginEvent;
+        this.setField = setField;
+        this.commitEvent = commitEvent;
+    }
+
+    /**
+     * Creates an event type.
+     *
+     * @param name       event name such as {@code com.example.Transaction}
+     * @param label      human readable name
+     * @param fieldNames field names; the index of a name is the index passed to {@link JfrEvent#set(int, Object)}
+     * @param fieldTypes field types (primitive types, their wrappers are accepted as values, or {@code String})
+     */
+    public static JfrEventType create(String name, String label, String[] fieldNames, Class<?>[] fieldTypes) {
+        try {
+            ClassLoader classLoader = ClassLoader.getSystemClassLoader();
+            Class<?> annotationElementClass = Class.forName("jdk.jfr.AnnotationElement", true, classLoader);
+            Class<?> valueDescriptorClass = Class.forName("jdk.jfr.ValueDescriptor", true, classLoader);
+            Class<?> eventFactoryClass = Class.forName("jdk.jfr.EventFactory", true, classLoader);
+            Class<?> eventTypeClass = Class.forName("jdk.jfr.EventType", true, classLoader);
+            Class<?> eventClass = Class.forName("jdk.jfr.Event", true, classLoader);
+
+            List<Object> annotations = new ArrayList<>();
+            annotations.add(annotationElementClass.getConstructor(Class.class, Object.class)
+                    .newInstance(Class.forName("jdk.jfr.Name", true, classLoader), name));
+            annotations.add(annotationElementClass.getConstructor(Class.class, Object.class)
+                    .newInstance(Class.forName("jdk.jfr.Label", true, classLoader), label));
+            String[] category = {"Application", "JPA"};
+            annotations.add(annotationElementClass.getConstructor(Class.class, Object.class)
+                    .newInstance(Class.forName("jdk.jfr.Category", true, classLoader), category));
+
+            List<Object> fields = new ArrayList<>();
+            for (int i = 0; i < fieldNames.length; i++) {
+                fields.add(valueDescriptorClass.getConstructor(Class.class, String.class)
+                        .newInstance(fieldTypes[i], fieldNames[i]));
+            }
+
+            Method createMethod = eventFactoryClass.getMethod("create", List.class, List.class);
+            Object eventFactory = createMethod.invoke(null, annotations, fields);
+            Object eventType = eventFactoryClass.getMethod("getEventType").invoke(eventFactory);
+
+            MethodHandles.Lookup lookup = MethodHandles.publicLookup();
+            MethodHandle isEnabled = lookup.findVirtual(eventTypeClass, "isEnabled", MethodType.methodType(boolean.class))
+                    .bindTo(eventType);
+            MethodHandle newEvent = lookup.findVirtual(eventFactoryClass, "newEvent", MethodType.methodType(eventClass))
+                    .bindTo(eventFactory)
+                    .asType(MethodType.methodType(Object.class));
+            MethodHandle beginEvent = lookup.findVirtual(eventClass, "begin", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            MethodHandle setField = lookup.findVirtual(eventClass, "set", MethodType.methodType(void.class, int.class, Object.class))
+                    .asType(MethodType.methodType(void.class, Object.class, int.class, Object.class));
+            MethodHandle commitEvent = lookup.findVirtual(eventClass, "commit", MethodType.methodType(void.class))
+                    .asType(MethodType.methodType(void.class, Object.class));
+            return new JfrEventType(name, isEnabled, newEvent, beginEvent, setField, commitEvent);
+        } catch (ClassNotFoundException e) {
+            logger.debug("JFR is not available. The event type {} is disabled.", name);
+            return new JfrEventType(name, null, null, null, null, null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            logger.warn("Failed to create the JFR event type " + name + ". The event type is disabled.", e);
+            return new JfrEventType(name, null, null, null, null, null);
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * Returns whether a running recording enables this event type.
+     */
+    public boolean isEnabled() {
+        if (isEnabled == null) {
+            return false;
+        }
+        try {
+            return (boolean) isEnabled.invokeExact();
+        } catch (Throwable e) {
+            return false;
+        }
+    }
+
+    /**
+     * Begins an event. The returned event must be committed with {@link JfrEvent#commit()} to be recorded.
+     */
+    public JfrEvent begin() {
+        if (!isEnabled()) {
+            return JfrEvent.DISABLED;
+        }
+        try {
+            Object event = (Object) newEvent.invokeExact();
+            beginEvent.invokeExact(event);
+            return new JfrEvent(this, event);
+        } catch (Throwable e) {
+            logger.debug("Failed to begin the JFR event {}.", name, e);
+            return JfrEvent.DISABLED;
+        }
+    }
+
+    void set(Object event, int index, Object value) {
+        try {
+            setField.invokeExact(event, index, value);
+        } catch (Throwable e) {
+            logger.debug("Failed to set the field {} of the JFR event {}.", index, name, e);
+        }
+    }
+
+    void commit(Object event) {
+        try {
+            commitEvent.invokeExact(event);
+        } catch (Throwable e) {
+            logger.debug("Failed to commit the JFR event {}.", name, e);
+        }
+    }
+
+}
@@ -0,0 +1,300 @@
+package com.example.infra.jpa;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.TransientDataAccessResourceException;
+import org.springframework.dao.support.PersistenceExceptionTranslator;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.metamodel.EntityType;
+import javax.persistence.metamodel.SingularAttribute;
+import java.lang.reflect.Field;
+import java.lang.reflect.Member;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Coordinator that merges concurrent {@code saveAndFlush} calls into one physical transaction.
+ * <p/>
+ * A caller that finds no running leader after the group window becomes the leader, and commits the
+ * entities queued by all callers in one transaction. If an entity fails on flush (e.g. unique constraint
+ * violation), the transaction is rolled back, the failure is reported only to the owner of that entity,
+ * and the remaining entities are retried in a new transaction.
+ * <p/>
+ * When the caller already has a transaction, the entity is saved and flushed in that transaction.
+ * <p/>
+ * The coordinator is opt-in: repositories do not use it, so only callers that invoke
+ * {@link #saveAndFlush(Object)} on the {@code groupCommitCoordinator} bean instead of the repository share commits.
+ */
+public class GroupCommitCoordinator {
+
+    private static final Logger logger = LoggerFactory.getLogger(GroupCommitCoordinator.class);
+
+    private final TransactionTemplate transactionTemplate;
+    private final PersistenceExceptionTranslator exceptionTranslator;
+
+    private final ConcurrentLinkedQueue<Request<?>> queue = new ConcurrentLinkedQueue<>();
+    private final AtomicBoolean leader = new AtomicBoolean();
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    private long windowMillis = 2;
+    private int maxGroupSize = 64;
+
+    public GroupCommitCoordinator(PlatformTransactionManager transactionManager, PersistenceExceptionTranslator exceptionTranslator) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.exceptionTranslator = exceptionTranslator;
+    }
+
+    /**
+     * Saves the entity and flushes it, sharing the commit with concurrent callers.
+     *
+     * @return the saved entity (the merged instance if the entity is not new)
+     * @throws DataAccessException if saving or committing the entity failed
+     */
+    public <T> T saveAndFlush(T entity) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            try {
+                T saved = save(entity);
+                entityManager.flush();
+                return saved;
+            } catch (RuntimeException e) {
+                throw translate(e);
+            }
+        }
+
+        Request<T> request = new Request<>(entity, isNew(entity));
+        queue.add(request);
+        while (!request.await(windowMillis)) {
+            if (leader.compareAndSet(false, true)) {
+                try {
+                    lead(request);
+                } finally {
+                    leader.set(false);
+                }
+            }
+        }
+        if (request.interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return request.getResult();
+    }
+
+    private void lead(Request<?> ownRequest) {
+        List<Request<?>> group = new ArrayList<>(maxGroupSize);
+        try {
+            while (!ownRequest.isDone()) {
+                Request<?> request;
+                while (group.size() < maxGroupSize && (request = queue.poll()) != null) {
+                    group.add(request);
+                }
+                if (group.isEmpty()) {
+                    return;
+                }
+                commit(group);
+                group.clear();
+            }
+        } finally {
+            // drained requests are no longer in the queue, so nobody else would complete them (e.g. on an Error)
+            for (Request<?> request : group) {
+                if (!request.isDone()) {
+                    request.fail(new TransientDataAccessResourceException("The group commit was aborted."));
+                }
+            }
+        }
+    }
+
+    private void commit(List<Request<?>> group) {
+        List<Request<?>> pending = new ArrayList<>(group);
+        boolean isolating = false;
+        while (!pending.isEmpty()) {
+            Attempt attempt;
+            try {
+                attempt = transactionTemplate.execute(new AttemptCallback(pending, isolating));
+            } catch (RuntimeException e) {
+                logger.warn("Failed to commit a group. size={}", pending.size());
+                RuntimeException failure = translate(e);
+                for (Request<?> request : pending) {
+                    request.resetGeneratedId();
+                    request.fail(failure);
+                }
+                return;
+            }
+            if (attempt.failure == null) {
+                for (int i = 0; i < pending.size(); i++) {
+                    pending.get(i).succeed(attempt.results[i]);
+                }
+                return;
+            }
+            for (Request<?> request : pending) {
+                request.resetGeneratedId();
+            }
+            if (attempt.failedIndex >= 0) {
+                pending.remove(attempt.failedIndex).fail(attempt.failure);
+            } else if (isolating) {
+                // the culprit is unknown even with entities flushed one by one, so commit each in its own transaction
+                for (Request<?> request : pending) {
+                    commit(new ArrayList<Request<?>>(Collections.singletonList(request)));
+                }
+                return;
+            }
+            isolating = true;
+        }
+    }
+
+    private <T> T save(T entity) {
+        if (isNew(entity)) {
+            entityManager.persist(entity);
+            return entity;
+        }
+        return entityManager.merge(entity);
+    }
+
+    private boolean isNew(Object entity) {
+        return entityManager.getEntityManagerFactory().getPersistenceUnitUtil().getIdentifier(entity) == null;
+    }
+
+    private RuntimeException translate(RuntimeException e) {
+        DataAccessException translated = exceptionTranslator.translateExceptionIfPossible(e);
+        return translated != null ? translated : e;
+    }
+
+    public void setWindowMillis(long windowMillis) {
+        this.windowMillis = windowMillis;
+    }
+
+    public void setMaxGroupSize(int maxGroupSize) {
+        this.maxGroupSize = maxGroupSize;
+    }
+
+    private static class Attempt {
+        private final Object[] results;
+        private int failedIndex = -1;
+        private RuntimeException failure;
+
+        private Attempt(int size) {
+            this.results = new Object[size];
+        }
+    }
+
+    /**
+     * Saves all pending entities in one transaction. In the isolating mode, each entity is flushed one by one
+     * so that a failure can be attributed to its owner.
+     */
+    private class AttemptCallback implements TransactionCallback<Attempt> {
+
+        private final List<Request<?>> pending;
+        private final boolean isolating;
+
+        private AttemptCallback(List<Request<?>> pending, boolean isolating) {
+            this.pending = pending;
+            this.isolating = isolating;
+        }
+
+        @Override
+        public Attempt doInTransaction(TransactionStatus status) {
+            Attempt attempt = new Attempt(pending.size());
+            int index = -1;
+            try {
+                for (index = 0; index < pending.size(); index++) {
+                    attempt.results[index] = save(pending.get(index).entity);
+                    if (isolating) {
+                        entityManager.flush();
+                    }
+                }
+                index = -1;
+                entityManager.flush();
+            } catch (RuntimeException e) {
+                if (pending.size() == 1) {
+                    attempt.failedIndex = 0;
+                } else if (isolating && index >= 0) {
+                    attempt.failedIndex = index;
+                } else {
+                    // a failure of the final flush cannot be attributed to an entity
+                    attempt.failedIndex = -1;
+                }
+                attempt.failure = translate(e);
+                status.setRollbackOnly();
+            }
+            return attempt;
+        }
+    }
+
+    private class Request<T> {
+
+        private final T entity;
+        private final boolean newEntity;
+        private final CountDownLatch done = new CountDownLatch(1);
+        private volatile Object result;
+        private volatile RuntimeException failure;
+        private boolean interrupted;
+
+        private Request(T entity, boolean newEntity) {
+            this.entity = entity;
+            this.newEntity = newEntity;
+        }
+
+        private boolean await(long timeoutMillis) {
+            try {
+                return done.await(timeoutMillis, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // the entity is already queued, so wait until the group that contains it completes
+                interrupted = true;
+                return false;
+            }
+        }
+
+        private boolean isDone() {
+            return done.getCount() == 0;
+        }
+
+        private void succeed(Object result) {
+            this.result = result;
+            done.countDown();
+        }
+
+        private void fail(RuntimeException failure) {
+            this.failure = failure;
+            done.countDown();
+        }
+
+        @SuppressWarnings("unchecked")
+        private T getResult() {
+            if (failure != null) {
+                throw failure;
+            }
+            return (T) result;
+        }
+
+        /**
+         * Clears the id that was generated in a rolled back transaction, so that the entity is persisted again as new.
+         */
+        private void resetGeneratedId() {
+            if (!newEntity) {
+                return;
+            }
+            EntityType<?> entityType = entityManager.getMetamodel().entity(entity.getClass());
+            SingularAttribute<?, ?> idAttribute = entityType.getId(entityType.getIdType().getJavaType());
+            Member member = idAttribute.getJavaMember();
+            if (member instanceof Field) {
+                ReflectionUtils.makeAccessible((Field) member);
+                ReflectionUtils.setField((Field) member, entity, null);
+            }
+        }
+    }
+
+}
@@ -0,0 +1,220 @@
+package com.example.infra.jpa;
+
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.hibernate.ejb.HibernateEntityManagerFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Pattern;
+
+/**
+ * Publishes Hibernate statistics and connection pool statistics.
+ * <p/>
+ * Hibernate collects statistics only while {@code statisticsEnabled} is {@code true}
+ * ({@code hibernate.generate_statistics}), which can also be switched at runtime via JMX.
+ */
+@ManagedResource(description = "Hibernate and connection pool statistics")
+public class HibernateStatisticsMonitor {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final DataSource pooledDataSource;
+
+    private String[] monitoredEntityNames = {"Task"};
+
+    public HibernateStatisticsMonitor(EntityManagerFactory entityManagerFactory, DataSource pooledDataSource) {
+        this.entityManagerFactory = entityManagerFactory;
+        this.pooledDataSource = pooledDataSource;
+    }
+
+    public void setMonitoredEntityNames(String[] monitoredEntityNames) {
+        this.monitoredEntityNames = monitoredEntityNames;
+    }
+
+    @ManagedAttribute(description = "Whether Hibernate collects statistics")
+    public boolean isStatisticsEnabled() {
+        return getStatistics().isStatisticsEnabled();
+    }
+
+    @ManagedAttribute
+    public void setStatisticsEnabled(boolean enabled) {
+        getStatistics().setStatisticsEnabled(enabled);
+    }
+
+    @ManagedAttribute
+    public long getEntityLoadCount() {
+        return getStatistics().getEntityLoadCount();
+    }
+
+    @ManagedAttribute
+    public long getEntityFetchCount() {
+        return getStatistics().getEntityFetchCount();
+    }
+
+    @ManagedAttribute
+    public long getFlushCount() {
+        return getStatistics().getFlushCount();
+    }
+
+    @ManagedAttribute
+    public long getQueryExecutionCount() {
+        return getStatistics().getQueryExecutionCount();
+    }
+
+    @ManagedAttribute
+    public long getQueryExecutionMaxTime() {
+        return getStatistics().getQueryExecutionMaxTime();
+    }
+
+    @ManagedAttribute
+    public String getQueryExecutionMaxTimeQueryString() {
+        return getStatistics().getQueryExecutionMaxTimeQueryString();
+    }
+
+    @ManagedAttribute
+    public double getSecondLevelCacheHitRatio() {
+        Statistics statistics = getStatistics();
+        return ratio(statistics.getSecondLevelCacheHitCount(), statistics.getSecondLevelCacheMissCount());
+    }
+
+    @ManagedAttribute
+    public double getQueryCacheHitRatio() {
+        Statistics statistics = getStatistics();
+        return ratio(statistics.getQueryCacheHitCount(), statistics.getQueryCacheMissCount());
+    }
+
+    @ManagedAttribute
+    public int getConnectionPoolNumActive() {
+        BasicDataSource pool = getPool();
+        return pool == null ? -1 : pool.getNumActive();
+    }
+
+    @ManagedAttribute
+    public int getConnectionPoolNumIdle() {
+        BasicDataSource pool = getPool();
+        return pool == null ? -1 : pool.getNumIdle();
+    }
+
+    @ManagedOperation(description = "Reports execution statistics of queries on the monitored entities")
+    public String reportQueries() {
+        StringBuilder report = new StringBuilder();
+        for (Map<String, Object> query : getQueryStatistics()) {
+            report.append(query).append('\n');
+        }
+        return report.toString();
+    }
+
+    @ManagedOperation(description = "Clears all Hibernate statistics")
+    public void clear() {
+        getStatistics().clear();
+    }
+
+    /**
+     * Returns Hibernate session factory statistics.
+     */
+    public Map<String, Object> getHibernateStatistics() {
+        Statistics statistics = getStatistics();
+        Map<String, Object> values = new LinkedHashMap<>();
+        values.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        values.put("sessionOpenCount", statistics.getSessionOpenCount());
+        values.put("transactionCount", statistics.getTransactionCount());
+        values.put("connectCount", statistics.getConnectCount());
+        values.put("prepareStatementCount", statistics.getPrepareStatementCount());
+        values.put("flushCount", statistics.getFlushCount());
+        values.put("entityLoadCount", statistics.getEntityLoadCount());
+        values.put("entityFetchCount", statistics.getEntityFetchCount());
+        values.put("entityInsertCount", statistics.getEntityInsertCount());
+        values.put("entityUpdateCount", statistics.getEntityUpdateCount());
+        values.put("entityDeleteCount", statistics.getEntityDeleteCount());
+        values.put("optimisticFailureCount", statistics.getOptimisticFailureCount());
+        values.put("queryExecutionCount", statistics.getQueryExecutionCount());
+        values.put("queryExecutionMaxTime", statistics.getQueryExecutionMaxTime());
+        values.put("queryExecutionMaxTimeQueryString", statistics.getQueryExecutionMaxTimeQueryString());
+        values.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        values.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        values.put("secondLevelCacheHitRatio", getSecondLevelCacheHitRatio());
+        values.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        values.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        values.put("queryCacheHitRatio", getQueryCacheHitRatio());
+        return values;
+    }
+
+    /**
+     * Returns execution statistics (count, rows, average and max time in milliseconds) of the queries
+     * on the monitored entities.
+     */
+    public List<Map<String, Object>> getQueryStatistics() {
+        Statistics statistics = getStatistics();
+        Pattern entityPattern = Pattern.compile("(?i)\\b(from|update)\\s+(" + join(monitoredEntityNames) + ")\\b");
+        List<Map<String, Object>> queries = new ArrayList<>();
+        String[] queryStrings = statistics.getQueries();
+        Arrays.sort(queryStrings);
+        for (String queryString : queryStrings) {
+            if (!entityPattern.matcher(queryString).find()) {
+                continue;
+            }
+            QueryStatistics queryStatistics = statistics.getQueryStatistics(queryString);
+            Map<String, Object> values = new LinkedHashMap<>();
+            values.put("query", queryString);
+            values.put("executionCount", queryStatistics.getExecutionCount());
+            values.put("executionRowCount", queryStatistics.getExecutionRowCount());
+            values.put("executionAvgTime", queryStatistics.getExecutionAvgTime());
+            values.put("executionMaxTime", queryStatistics.getExecutionMaxTime());
+            values.put("executionMinTime", queryStatistics.getExecutionMinTime());
+            queries.add(values);
+        }
+        return queries;
+    }
+
+    /**
+     * Returns statistics of the connection pool, or an empty map if the pool is not DBCP2.
+     */
+    public Map<String, Object> getConnectionPoolStatistics() {
+        Map<String, Object> values = new LinkedHashMap<>();
+        BasicDataSource pool = getPool();
+        if (pool == null) {
+            return values;
+        }
+        values.put("numActive", pool.getNumActive());
+        values.put("numIdle", pool.getNumIdle());
+        values.put("maxTotal", pool.getMaxTotal());
+        values.put("maxIdle", pool.getMaxIdle());
+        values.put("minIdle", pool.getMinIdle());
+        values.put("maxWaitMillis", pool.getMaxWaitMillis());
+        return values;
+    }
+
+    private Statistics getStatistics() {
+        return ((HibernateEntityManagerFactory) entityManagerFactory).getSessionFactory().getStatistics();
+    }
+
+    private BasicDataSource getPool() {
+        return pooledDataSource instanceof BasicDataSource ? (BasicDataSource) pooledDataSource : null;
+    }
+
+    private static double ratio(long hit, long miss) {
+        long total = hit + miss;
+        return total == 0 ? 0.0 : (double) hit / total;
+    }
+
+    private static String join(String[] names) {
+        StringBuilder joined = new StringBuilder();
+        for (String name : names) {
+            if (joined.length() > 0) {
+                joined.append('|');
+            }
+            joined.append(Pattern.quote(name));
+        }
+        return joined.toString();
+    }
+
+}
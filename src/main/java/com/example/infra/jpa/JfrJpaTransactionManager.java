@@ -0,0 +1,93 @@
+package com.example.infra.jpa;
+
+import com.example.infra.jfr.JfrEvent;
+import com.example.infra.jfr.JfrEventType;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.DefaultTransactionStatus;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+
+/**
+ * {@link JpaTransactionManager} that emits a JFR event ({@code com.example.Transaction}) per transaction.
+ * <p/>
+ * The event spans from begin to completion and carries the transaction name, the read-only flag and the outcome
+ * ({@code COMMIT}, {@code COMMIT_FAILED}, {@code ROLLBACK} or {@code BEGIN_FAILED}).
+ * Events of suspended transactions are kept in a per-thread stack, as transactions on a thread complete in LIFO order.
+ */
+public class JfrJpaTransactionManager extends JpaTransactionManager {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final JfrEventType TRANSACTION_EVENT_TYPE = JfrEventType.create(
+            "com.example.Transaction", "JPA Transaction",
+            new String[]{"name", "readOnly", "outcome"},
+            new Class<?>[]{String.class, boolean.class, String.class});
+
+    private static final int NAME = 0;
+    private static final int READ_ONLY = 1;
+    private static final int OUTCOME = 2;
+
+    private static final ThreadLocal<Deque<JfrEvent>> events = new ThreadLocal<Deque<JfrEvent>>() {
+        @Override
+        protected Deque<JfrEvent> initialValue() {
+            return new ArrayDeque<>();
+        }
+    };
+
+    @Override
+    protected void doBegin(Object transaction, TransactionDefinition definition) {
+        JfrEvent event = TRANSACTION_EVENT_TYPE.begin();
+        if (event.isRecording()) {
+            event.set(NAME, definition.getName()).set(READ_ONLY, definition.isReadOnly());
+        }
+        try {
+            super.doBegin(transaction, definition);
+        } catch (RuntimeException | Error e) {
+            event.set(OUTCOME, "BEGIN_FAILED").commit();
+            throw e;
+        }
+        events.get().push(event);
+    }
+
+    @Override
+    protected void doCommit(DefaultTransactionStatus status) {
+        JfrEvent event = events.get().peek();
+        try {
+            super.doCommit(status);
+        } catch (RuntimeException | Error e) {
+            setOutcome(event, "COMMIT_FAILED");
+            throw e;
+        }
+        setOutcome(event, "COMMIT");
+    }
+
+    @Override
+    protected void doRollback(DefaultTransactionStatus status) {
+        try {
+            super.doRollback(status);
+        } finally {
+            setOutcome(events.get().peek(), "ROLLBACK");
+        }
+    }
+
+    @Override
+    protected void doCleanupAfterCompletion(Object transaction) {
+        try {
+            super.doCleanupAfterCompletion(transaction);
+        } finally {
+            JfrEvent event = events.get().poll();
+            if (event != null) {
+                event.commit();
+            }
+        }
+    }
+
+    private static void setOutcome(JfrEvent event, String outcome) {
+        if (event != null) {
+            event.set(OUTCOME, outcome);
+        }
+    }
+
+}
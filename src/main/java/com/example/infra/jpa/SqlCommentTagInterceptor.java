@@ -0,0 +1,74 @@
+package com.example.infra.jpa;
+
+import com.example.infra.monitoring.RepositoryInvocationContext;
+import org.hibernate.EmptyInterceptor;
+import org.slf4j.MDC;
+
+import java.util.regex.Pattern;
+
+/**
+ * Hibernate interceptor that prefixes each SQL with a comment that identifies its origin.
+ * <p/>
+ * Hibernate instantiates this class by name ({@code hibernate.ejb.interceptor}), so the mode is held statically
+ * and configured with {@link #setMode(Mode)}.
+ */
+public class SqlCommentTagInterceptor extends EmptyInterceptor {
+
+    /**
+     * Tagging mode.
+     */
+    public enum Mode {
+        /**
+         * No tag is added.
+         */
+        NONE,
+        /**
+         * Tags the repository method. The number of distinct SQL strings stays bounded,
+         * so server-side and driver statement caches keep working.
+         */
+        METHOD,
+        /**
+         * Tags the X-Track id and the repository method. Every request produces distinct SQL strings,
+         * which defeats statement caches, so use this only while investigating.
+         */
+        METHOD_AND_TRACK
+    }
+
+    private static final long serialVersionUID = 1L;
+
+    private static final String X_TRACK_KEY = "X-Track";
+
+    private static final Pattern UNSAFE_CHARACTERS = Pattern.compile("[^A-Za-z0-9_.\\-]");
+
+    private static volatile Mode mode = Mode.NONE;
+
+    public static Mode getMode() {
+        return mode;
+    }
+
+    public static void setMode(Mode mode) {
+        SqlCommentTagInterceptor.mode = mode;
+    }
+
+    @Override
+    public String onPrepareStatement(String sql) {
+        Mode currentMode = mode;
+        if (currentMode == Mode.NONE) {
+            return sql;
+        }
+        String method = RepositoryInvocationContext.getCurrentMethod();
+        String xTrack = currentMode == Mode.METHOD_AND_TRACK ? MDC.get(X_TRACK_KEY) : null;
+        if (method == null && xTrack == null) {
+            return sql;
+        }
+        StringBuilder taggedSql = new StringBuilder(sql.length() + 64).append("/* ");
+        if (xTrack != null) {
+            taggedSql.append("X-Track:").append(UNSAFE_CHARACTERS.matcher(xTrack).replaceAll("")).append(' ');
+        }
+        if (method != null) {
+            taggedSql.append(method).append(' ');
+        }
+        return taggedSql.append("*/ ").append(sql).toString();
+    }
+
+}
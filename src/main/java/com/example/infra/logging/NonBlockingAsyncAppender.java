@@ -0,0 +1,256 @@
+package com.example.infra.logging;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.UnsynchronizedAppenderBase;
+import ch.qos.logback.core.spi.AppenderAttachable;
+import ch.qos.logback.core.spi.AppenderAttachableImpl;
+import com.example.infra.concurrent.BoundedRingBuffer;
+
+import javax.management.JMException;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Logback appender that hands events to the attached appenders on a worker thread through a bounded lock-free queue.
+ * <p/>
+ * When the queue is full, events below {@code neverDropLevel} (default {@code WARN}) are dropped and counted,
+ * and events at or above it wait until the worker frees space, so warnings and errors are never lost.
+ * Queue depth and counters are exposed as the platform MBean
+ * {@code com.example:type=NonBlockingAsyncAppender,name=<appender name>}.
+ */
+public class NonBlockingAsyncAppender extends UnsynchronizedAppenderBase<ILoggingEvent>
+        implements AppenderAttachable<ILoggingEvent>, NonBlockingAsyncAppenderMXBean {
+
+    private static final int DEFAULT_QUEUE_CAPACITY = 8192;
+    private static final int MAX_DRAIN_SIZE = 256;
+
+    private final AppenderAttachableImpl<ILoggingEvent> appenders = new AppenderAttachableImpl<>();
+
+    private final AtomicLong appendedCount = new AtomicLong();
+    private final AtomicLong droppedCount = new AtomicLong();
+    private final AtomicLong blockedCount = new AtomicLong();
+
+    private int queueCapacity = DEFAULT_QUEUE_CAPACITY;
+    private Level neverDropLevel = Level.WARN;
+    private boolean includeCallerData;
+    private long maxFlushTimeMillis = 1000;
+
+    private BoundedRingBuffer<ILoggingEvent> queue;
+    private Thread worker;
+    private volatile boolean workerParked;
+
+    /**
+     * Name of the MBean registered by this appender, or {@code null} if this appender did not register it.
+     */
+    private ObjectName objectName;
+
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    public void setNeverDropLevel(String neverDropLevel) {
+        this.neverDropLevel = Level.toLevel(neverDropLevel, Level.WARN);
+    }
+
+    public void setIncludeCallerData(boolean includeCallerData) {
+        this.includeCallerData = includeCallerData;
+    }
+
+    public void setMaxFlushTimeMillis(long maxFlushTimeMillis) {
+        this.maxFlushTimeMillis = maxFlushTimeMillis;
+    }
+
+    @Override
+    public void start() {
+        if (isStarted()) {
+            return;
+        }
+        if (!appenders.iteratorForAppenders().hasNext()) {
+            addError("No attached appenders found for [" + getName() + "].");
+            return;
+        }
+        queue = new BoundedRingBuffer<>(queueCapacity);
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                dispatchContinuously();
+            }
+        }, "async-log-" + getName());
+        worker.setDaemon(true);
+        super.start();
+        worker.start();
+        registerMBean();
+    }
+
+    @Override
+    public void stop() {
+        if (!isStarted()) {
+            return;
+        }
+        super.stop();
+        LockSupport.unpark(worker);
+        try {
+            worker.join(maxFlushTimeMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (worker.isAlive()) {
+            addWarn("Worker of [" + getName() + "] did not finish within " + maxFlushTimeMillis + " ms. "
+                    + queue.size() + " queued events may be discarded.");
+        }
+        unregisterMBean();
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        event.prepareForDeferredProcessing();
+        if (includeCallerData) {
+            event.getCallerData();
+        }
+        if (!queue.offer(event)) {
+            if (!event.getLevel().isGreaterOrEqual(neverDropLevel)) {
+                droppedCount.incrementAndGet();
+                return;
+            }
+            blockedCount.incrementAndGet();
+            while (!queue.offer(event)) {
+                if (!isStarted()) {
+                    appenders.appendLoopOnAppenders(event);
+                    appendedCount.incrementAndGet();
+                    return;
+                }
+                LockSupport.unpark(worker);
+                LockSupport.parkNanos(TimeUnit.MICROSECONDS.toNanos(100));
+            }
+        }
+        appendedCount.incrementAndGet();
+        if (workerParked) {
+            LockSupport.unpark(worker);
+        }
+    }
+
+    private void dispatchContinuously() {
+        List<ILoggingEvent> events = new ArrayList<>(MAX_DRAIN_SIZE);
+        while (isStarted()) {
+            if (queue.drainTo(events, MAX_DRAIN_SIZE) == 0) {
+                workerParked = true;
+                if (queue.isEmpty() && isStarted()) {
+                    LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(100));
+                }
+                workerParked = false;
+                continue;
+            }
+            dispatch(events);
+        }
+        while (queue.drainTo(events, MAX_DRAIN_SIZE) > 0) {
+            dispatch(events);
+        }
+    }
+
+    private void dispatch(List<ILoggingEvent> events) {
+        for (ILoggingEvent event : events) {
+            try {
+                appenders.appendLoopOnAppenders(event);
+            } catch (RuntimeException e) {
+                addError("Failed to dispatch an event of [" + getName() + "].", e);
+            }
+        }
+        events.clear();
+    }
+
+    private void registerMBean() {
+        try {
+            ObjectName name = new ObjectName("com.example:type=NonBlockingAsyncAppender,name=" + ObjectName.quote(getName()));
+            if (ManagementFactory.getPlatformMBeanServer().isRegistered(name)) {
+                addWarn("The MBean " + name + " is already registered. [" + getName() + "] is not exposed.");
+                return;
+            }
+            ManagementFactory.getPlatformMBeanServer().registerMBean(this, name);
+            objectName = name;
+        } catch (JMException e) {
+            addWarn("Failed to register the MBean of [" + getName() + "].", e);
+        }
+    }
+
+    private void unregisterMBean() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            addWarn("Failed to unregister the MBean of [" + getName() + "].", e);
+        }
+        objectName = null;
+    }
+
+    @Override
+    public int getQueueDepth() {
+        return queue == null ? 0 : queue.size();
+    }
+
+    @Override
+    public int getQueueCapacity() {
+        return queue == null ? queueCapacity : queue.capacity();
+    }
+
+    @Override
+    public long getAppendedCount() {
+        return appendedCount.get();
+    }
+
+    @Override
+    public long getDroppedCount() {
+        return droppedCount.get();
+    }
+
+    @Override
+    public long getBlockedCount() {
+        return blockedCount.get();
+    }
+
+    @Override
+    public void addAppender(Appender<ILoggingEvent> newAppender) {
+        appenders.addAppender(newAppender);
+    }
+
+    @Override
+    public Iterator<Appender<ILoggingEvent>> iteratorForAppenders() {
+        return appenders.iteratorForAppenders();
+    }
+
+    @Override
+    public Appender<ILoggingEvent> getAppender(String name) {
+        return appenders.getAppender(name);
+    }
+
+    @Override
+    public boolean isAttached(Appender<ILoggingEvent> appender) {
+        return appenders.isAttached(appender);
+    }
+
+    @Override
+    public void detachAndStopAllAppenders() {
+        appenders.detachAndStopAllAppenders();
+    }
+
+    @Override
+    public boolean detachAppender(Appender<ILoggingEvent> appender) {
+        return appenders.detachAppender(appender);
+    }
+
+    @Override
+    public boolean detachAppender(String name) {
+        return appenders.detachAppender(name);
+    }
+
+}
@@ -0,0 +1,18 @@
+package com.example.infra.logging;
+
+/**
+ * Management interface of {@link NonBlockingAsyncAppender}.
+ */
+public interface NonBlockingAsyncAppenderMXBean {
+
+    int getQueueDepth();
+
+    int getQueueCapacity();
+
+    long getAppendedCount();
+
+    long getDroppedCount();
+
+    long getBlockedCount();
+
+}
@@ -0,0 +1,49 @@
+package com.example.infra.monitoring;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Readiness of the application to serve requests.
+ * <p/>
+ * Components that must finish work before the application serves traffic (e.g. warm-up) register a condition
+ * and mark it ready when done. The application is ready when no condition is pending.
+ */
+@ManagedResource(description = "Readiness of the application")
+public class ApplicationReadiness {
+
+    private static final Logger logger = LoggerFactory.getLogger(ApplicationReadiness.class);
+
+    private final Set<String> pendingConditions = Collections.newSetFromMap(new ConcurrentHashMap<String, Boolean>());
+
+    public void register(String condition) {
+        pendingConditions.add(condition);
+    }
+
+    public void markReady(String condition) {
+        if (pendingConditions.remove(condition) && pendingConditions.isEmpty()) {
+            logger.info("Application is ready. last condition={}", condition);
+        }
+    }
+
+    @ManagedAttribute(description = "Whether no readiness condition is pending")
+    public boolean isReady() {
+        return pendingConditions.isEmpty();
+    }
+
+    @ManagedAttribute(description = "Readiness conditions that are pending")
+    public List<String> getPendingConditions() {
+        List<String> conditions = new ArrayList<>(pendingConditions);
+        Collections.sort(conditions);
+        return conditions;
+    }
+
+}
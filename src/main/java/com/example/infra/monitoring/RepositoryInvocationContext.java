@@ -0,0 +1,28 @@
+package com.example.infra.monitoring;
+
+/**
+ * Holds the repository method that is being invoked on the current thread (e.g. {@code TaskRepository.findOneById}).
+ */
+public final class RepositoryInvocationContext {
+
+    private static final ThreadLocal<String> currentMethod = new ThreadLocal<>();
+
+    private RepositoryInvocationContext() {
+    }
+
+    /**
+     * Returns the outermost repository method invoked on the current thread, or {@code null} if none.
+     */
+    public static String getCurrentMethod() {
+        return currentMethod.get();
+    }
+
+    static void setCurrentMethod(String method) {
+        if (method == null) {
+            currentMethod.remove();
+        } else {
+            currentMethod.set(method);
+        }
+    }
+
+}
@@ -0,0 +1,26 @@
+package com.example.infra.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Interceptor that exposes the invoked repository method through {@link RepositoryInvocationContext}.
+ */
+public class RepositoryInvocationContextInterceptor implements MethodInterceptor {
+
+    private final RepositoryMethodNameResolver methodNameResolver = new RepositoryMethodNameResolver();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (RepositoryInvocationContext.getCurrentMethod() != null) {
+            return invocation.proceed();
+        }
+        RepositoryInvocationContext.setCurrentMethod(methodNameResolver.resolve(invocation));
+        try {
+            return invocation.proceed();
+        } finally {
+            RepositoryInvocationContext.setCurrentMethod(null);
+        }
+    }
+
+}
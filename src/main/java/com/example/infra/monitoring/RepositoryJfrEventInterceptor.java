@@ -0,0 +1,109 @@
+package com.example.infra.monitoring;
+
+import com.example.infra.jfr.JfrEvent;
+import com.example.infra.jfr.JfrEventType;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.core.annotation.AnnotationUtils;
+import org.springframework.data.jpa.repository.Lock;
+
+import javax.persistence.Entity;
+import javax.persistence.EntityManagerFactory;
+import javax.persistence.LockModeType;
+import javax.persistence.PersistenceUnitUtil;
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interceptor that emits JFR events for repository invocations.
+ * <p/>
+ * Every invocation emits {@code com.example.RepositoryInvocation}. Invocations of methods annotated with a pessimistic
+ * {@link Lock} also emit {@code com.example.PessimisticLockAcquisition}, whose duration is the time spent waiting for
+ * and acquiring the lock. Both events carry the entity id taken from the first argument (an id or an entity).
+ * Nothing is computed while no recording enables the events.
+ */
+public class RepositoryJfrEventInterceptor implements MethodInterceptor {
+
+    private static final JfrEventType INVOCATION_EVENT_TYPE = JfrEventType.create(
+            "com.example.RepositoryInvocation", "Repository Invocation",
+            new String[]{"method", "entityId", "succeeded"},
+            new Class<?>[]{String.class, String.class, boolean.class});
+
+    private static final JfrEventType LOCK_EVENT_TYPE = JfrEventType.create(
+            "com.example.PessimisticLockAcquisition", "Pessimistic Lock Acquisition",
+            new String[]{"method", "entityId", "lockMode", "acquired"},
+            new Class<?>[]{String.class, String.class, String.class, boolean.class});
+
+    private final RepositoryMethodNameResolver methodNameResolver = new RepositoryMethodNameResolver();
+    private final ConcurrentMap<Method, LockModeType> lockModes = new ConcurrentHashMap<>();
+    private final PersistenceUnitUtil persistenceUnitUtil;
+
+    public RepositoryJfrEventInterceptor(EntityManagerFactory entityManagerFactory) {
+        this.persistenceUnitUtil = entityManagerFactory.getPersistenceUnitUtil();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        JfrEvent invocationEvent = INVOCATION_EVENT_TYPE.begin();
+        JfrEvent lockEvent = LOCK_EVENT_TYPE.isEnabled() ? beginLockEvent(invocation) : null;
+        boolean succeeded = false;
+        try {
+            Object result = invocation.proceed();
+            succeeded = true;
+            return result;
+        } finally {
+            if (invocationEvent.isRecording()) {
+                invocationEvent.set(0, methodNameResolver.resolve(invocation))
+                        .set(1, entityIdOf(invocation))
+                        .set(2, succeeded)
+                        .commit();
+            }
+            if (lockEvent != null) {
+                lockEvent.set(3, succeeded).commit();
+            }
+        }
+    }
+
+    private JfrEvent beginLockEvent(MethodInvocation invocation) {
+        LockModeType lockMode = lockModeOf(invocation.getMethod());
+        if (lockMode != LockModeType.PESSIMISTIC_READ && lockMode != LockModeType.PESSIMISTIC_WRITE
+                && lockMode != LockModeType.PESSIMISTIC_FORCE_INCREMENT) {
+            return null;
+        }
+        JfrEvent event = LOCK_EVENT_TYPE.begin();
+        if (!event.isRecording()) {
+            return null;
+        }
+        return event.set(0, methodNameResolver.resolve(invocation))
+                .set(1, entityIdOf(invocation))
+                .set(2, lockMode.name());
+    }
+
+    private LockModeType lockModeOf(Method method) {
+        LockModeType lockMode = lockModes.get(method);
+        if (lockMode == null) {
+            Lock lock = AnnotationUtils.findAnnotation(method, Lock.class);
+            lockMode = lock != null ? lock.value() : LockModeType.NONE;
+            lockModes.putIfAbsent(method, lockMode);
+        }
+        return lockMode;
+    }
+
+    private String entityIdOf(MethodInvocation invocation) {
+        Object[] arguments = invocation.getArguments();
+        if (arguments.length == 0 || arguments[0] == null) {
+            return null;
+        }
+        Object argument = arguments[0];
+        if (argument instanceof String || argument instanceof Number) {
+            return argument.toString();
+        }
+        if (AnnotationUtils.findAnnotation(argument.getClass(), Entity.class) != null) {
+            Object id = persistenceUnitUtil.getIdentifier(argument);
+            return id != null ? id.toString() : null;
+        }
+        return null;
+    }
+
+}
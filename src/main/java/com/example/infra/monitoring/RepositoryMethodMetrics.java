@@ -0,0 +1,49 @@
+package com.example.infra.monitoring;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Metrics of one repository method.
+ */
+public class RepositoryMethodMetrics {
+
+    private final AtomicLong errorCount = new AtomicLong();
+    private final AtomicLong returnedRowCount = new AtomicLong();
+    private final LatencyHistogram latencyHistogram = new LatencyHistogram();
+
+    void record(long elapsedNanos, boolean error, int returnedRows) {
+        latencyHistogram.record(elapsedNanos);
+        if (error) {
+            errorCount.incrementAndGet();
+        }
+        if (returnedRows > 0) {
+            returnedRowCount.addAndGet(returnedRows);
+        }
+    }
+
+    public long getCallCount() {
+        return latencyHistogram.getCount();
+    }
+
+    public long getErrorCount() {
+        return errorCount.get();
+    }
+
+    /**
+     * Returns total number of elements in collection and page results.
+     */
+    public long getReturnedRowCount() {
+        return returnedRowCount.get();
+    }
+
+    public LatencyHistogram getLatencyHistogram() {
+        return latencyHistogram;
+    }
+
+    void reset() {
+        errorCount.set(0);
+        returnedRowCount.set(0);
+        latencyHistogram.reset();
+    }
+
+}
@@ -0,0 +1,51 @@
+package com.example.infra.monitoring;
+
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolves the name of an invoked repository method such as {@code TaskRepository.findOneById}.
+ * <p/>
+ * Methods inherited from Spring Data interfaces are named after the application's repository interface.
+ * Resolved names are cached, so resolving does not allocate after the first call.
+ */
+class RepositoryMethodNameResolver {
+
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, String>> methodNames = new ConcurrentHashMap<>();
+
+    String resolve(MethodInvocation invocation) {
+        Class<?> targetClass = invocation.getThis() != null ? invocation.getThis().getClass() : invocation.getMethod().getDeclaringClass();
+        ConcurrentMap<Method, String> names = methodNames.get(targetClass);
+        if (names == null) {
+            names = new ConcurrentHashMap<>();
+            ConcurrentMap<Method, String> existing = methodNames.putIfAbsent(targetClass, names);
+            if (existing != null) {
+                names = existing;
+            }
+        }
+        Method method = invocation.getMethod();
+        String name = names.get(method);
+        if (name == null) {
+            name = repositoryNameOf(targetClass, method) + "." + method.getName();
+            String existing = names.putIfAbsent(method, name);
+            if (existing != null) {
+                name = existing;
+            }
+        }
+        return name;
+    }
+
+    private static String repositoryNameOf(Class<?> targetClass, Method method) {
+        for (Class<?> type : ClassUtils.getAllInterfacesForClassAsSet(targetClass)) {
+            if (method.getDeclaringClass().isAssignableFrom(type) && !type.getName().startsWith("org.springframework.")) {
+                return type.getSimpleName();
+            }
+        }
+        return method.getDeclaringClass().getSimpleName();
+    }
+
+}
@@ -0,0 +1,90 @@
+package com.example.infra.monitoring;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.data.domain.Page;
+import org.springframework.jmx.export.annotation.ManagedOperation;
+import org.springframework.jmx.export.annotation.ManagedResource;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Interceptor that records call count, error count, latency and returned rows per repository method.
+ */
+@ManagedResource(description = "Latency and throughput metrics per repository method")
+public class RepositoryMetricsInterceptor implements MethodInterceptor {
+
+    private final RepositoryMethodNameResolver methodNameResolver = new RepositoryMethodNameResolver();
+    private final ConcurrentMap<String, RepositoryMethodMetrics> metrics = new ConcurrentHashMap<>();
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        RepositoryMethodMetrics methodMetrics = metricsOf(methodNameResolver.resolve(invocation));
+        long start = System.nanoTime();
+        boolean error = true;
+        Object result = null;
+        try {
+            result = invocation.proceed();
+            error = false;
+            return result;
+        } finally {
+            methodMetrics.record(System.nanoTime() - start, error, rowsOf(result));
+        }
+    }
+
+    public Map<String, RepositoryMethodMetrics> getMetrics() {
+        return Collections.unmodifiableMap(metrics);
+    }
+
+    @ManagedOperation(description = "Reports metrics per repository method in microseconds")
+    public String report() {
+        List<String> names = new ArrayList<>(metrics.keySet());
+        Collections.sort(names);
+        StringBuilder report = new StringBuilder();
+        for (String name : names) {
+            RepositoryMethodMetrics methodMetrics = metrics.get(name);
+            report.append("method:").append(name)
+                    .append("\terrors:").append(methodMetrics.getErrorCount())
+                    .append("\trows:").append(methodMetrics.getReturnedRowCount())
+                    .append('\t').append(methodMetrics.getLatencyHistogram().summary())
+                    .append('\n');
+        }
+        return report.toString();
+    }
+
+    @ManagedOperation(description = "Clears all metrics")
+    public void reset() {
+        for (RepositoryMethodMetrics methodMetrics : metrics.values()) {
+            methodMetrics.reset();
+        }
+    }
+
+    private RepositoryMethodMetrics metricsOf(String name) {
+        RepositoryMethodMetrics methodMetrics = metrics.get(name);
+        if (methodMetrics == null) {
+            methodMetrics = new RepositoryMethodMetrics();
+            RepositoryMethodMetrics existing = metrics.putIfAbsent(name, methodMetrics);
+            if (existing != null) {
+                methodMetrics = existing;
+            }
+        }
+        return methodMetrics;
+    }
+
+    private static int rowsOf(Object result) {
+        if (result instanceof Collection) {
+            return ((Collection<?>) result).size();
+        }
+        if (result instanceof Page) {
+            return ((Page<?>) result).getNumberOfElements();
+        }
+        return 0;
+    }
+
+}
@@ -0,0 +1,190 @@
+package com.example.infra.monitoring;
+
+import com.example.domain.model.Member;
+import com.example.domain.repository.member.MemberRepository;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.jdbc.InstrumentedDataSource;
+import com.example.infra.jdbc.SqlBudgetGuard;
+import com.example.infra.jpa.HibernateStatisticsMonitor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Warms up the repositories after startup, and holds the {@link ApplicationReadiness} until the warm-up completes.
+ * <p/>
+ * Representative repository calls are repeated so that query plans are compiled, named queries are resolved and
+ * the repository proxies are compiled by the JIT before the first requests. Each round runs in a read-only
+ * transaction that is always rolled back, and the calls look up ids that do not exist, so no data is changed.
+ * The repository metrics, the statement statistics of {@link InstrumentedDataSource}, the counters of
+ * {@link SqlBudgetGuard} and the Hibernate statistics are reset after the warm-up, so that they show only
+ * the application's own calls.
+ */
+public class RepositoryWarmer implements ApplicationListener<ContextRefreshedEvent> {
+
+    private static final Logger logger = LoggerFactory.getLogger(RepositoryWarmer.class);
+
+    static final String READINESS_CONDITION = "repositoryWarmUp";
+
+    private static final String WARM_UP_ID = "ffffffff-ffff-ffff-ffff-ffffffffffff";
+
+    private static final String WARM_UP_ID_PREFIX = "ffffffff-";
+
+    private static final PageRequest FIRST_PAGE = new PageRequest(0, 20);
+
+    private static final PageRequest FIRST_PAGE_SORTED = new PageRequest(0, 20, Sort.Direction.ASC, "createdAt");
+
+    private final TaskRepository taskRepository;
+    private final MemberRepository memberRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationReadiness readiness;
+
+    private boolean enabled = true;
+    private int iterations = 200;
+    private long maxDurationMillis = 30000;
+    private RepositoryMetricsInterceptor repositoryMetricsInterceptor;
+    private InstrumentedDataSource instrumentedDataSource;
+    private SqlBudgetGuard sqlBudgetGuard;
+    private HibernateStatisticsMonitor hibernateStatisticsMonitor;
+
+    private final AtomicBoolean started = new AtomicBoolean();
+    private volatile boolean closed;
+    private Thread worker;
+
+    public RepositoryWarmer(TaskRepository taskRepository, MemberRepository memberRepository,
+                            PlatformTransactionManager transactionManager, ApplicationReadiness readiness) {
+        this.taskRepository = taskRepository;
+        this.memberRepository = memberRepository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setReadOnly(true);
+        this.readiness = readiness;
+    }
+
+    public void start() {
+        if (enabled) {
+            readiness.register(READINESS_CONDITION);
+        }
+    }
+
+    public void close() throws InterruptedException {
+        closed = true;
+        if (worker != null) {
+            worker.join();
+        }
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        // child contexts (e.g. DispatcherServlet) publish their refresh to this context too
+        if (!enabled || !started.compareAndSet(false, true)) {
+            return;
+        }
+        worker = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                warmUp();
+            }
+        }, "repository-warm-up");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    /**
+     * Runs the warm-up on the current thread and marks the readiness condition ready, even if the warm-up fails.
+     */
+    public void warmUp() {
+        long start = System.nanoTime();
+        long deadline = start + TimeUnit.MILLISECONDS.toNanos(maxDurationMillis);
+        int completed = 0;
+        try {
+            while (completed < iterations && !closed && System.nanoTime() < deadline) {
+                transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+                    @Override
+                    protected void doInTransactionWithoutResult(TransactionStatus status) {
+                        status.setRollbackOnly();
+                        exercise();
+                    }
+                });
+                completed++;
+            }
+            logger.info("Repository warm-up completed. iterations={}, elapsed={}ms",
+                    completed, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        } catch (RuntimeException e) {
+            logger.warn("Repository warm-up failed after " + completed + " iterations. The application is reported as ready.", e);
+        } finally {
+            resetStatistics();
+            readiness.markReady(READINESS_CONDITION);
+        }
+    }
+
+    private void resetStatistics() {
+        if (repositoryMetricsInterceptor != null) {
+            repositoryMetricsInterceptor.reset();
+        }
+        if (instrumentedDataSource != null) {
+            instrumentedDataSource.resetStatistics();
+        }
+        if (sqlBudgetGuard != null) {
+            sqlBudgetGuard.reset();
+        }
+        if (hibernateStatisticsMonitor != null) {
+            hibernateStatisticsMonitor.clear();
+        }
+    }
+
+    private void exercise() {
+        taskRepository.findOne(WARM_UP_ID);
+        taskRepository.findOneById(WARM_UP_ID);
+        taskRepository.findAllByFinished(WARM_UP_ID_PREFIX, false);
+        taskRepository.findPageByFinished(WARM_UP_ID_PREFIX, false, FIRST_PAGE_SORTED);
+        taskRepository.findAllByIdStartingWithAndFinished(WARM_UP_ID_PREFIX, false);
+        taskRepository.findPageByIdStartingWithAndFinished(WARM_UP_ID_PREFIX, false, FIRST_PAGE_SORTED);
+        taskRepository.findSliceByFinishedOrderByCreatedAtAscIdAsc(true, FIRST_PAGE);
+        taskRepository.findNextByFinished(false, new Date(), WARM_UP_ID, FIRST_PAGE);
+
+        Member member = new Member();
+        member.setLoginId("warm-up");
+        member.setName("warm-up");
+        memberRepository.save(member);
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setIterations(int iterations) {
+        this.iterations = iterations;
+    }
+
+    public void setMaxDurationMillis(long maxDurationMillis) {
+        this.maxDurationMillis = maxDurationMillis;
+    }
+
+    public void setRepositoryMetricsInterceptor(RepositoryMetricsInterceptor repositoryMetricsInterceptor) {
+        this.repositoryMetricsInterceptor = repositoryMetricsInterceptor;
+    }
+
+    public void setInstrumentedDataSource(InstrumentedDataSource instrumentedDataSource) {
+        this.instrumentedDataSource = instrumentedDataSource;
+    }
+
+    public void setSqlBudgetGuard(SqlBudgetGuard sqlBudgetGuard) {
+        this.sqlBudgetGuard = sqlBudgetGuard;
+    }
+
+    public void setHibernateStatisticsMonitor(HibernateStatisticsMonitor hibernateStatisticsMonitor) {
+        this.hibernateStatisticsMonitor = hibernateStatisticsMonitor;
+    }
+
+}
@@ -0,0 +1,140 @@
+package com.example.infra.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.io.DefaultResourceLoader;
+import org.springframework.core.type.filter.AnnotationTypeFilter;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.repository.NoRepositoryBean;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.Entity;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Properties;
+
+/**
+ * Index of the entity classes and repository interfaces.
+ * <p/>
+ * The index is generated at build time by {@link ComponentIndexGenerator} into {@value #LOCATION}, so that the
+ * {@value #STARTUP_OPTIMIZED_PROFILE} profile does not scan the classpath at startup.
+ */
+public class ComponentIndex {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComponentIndex.class);
+
+    /**
+     * Spring profile that reads entities and repositories from the index instead of scanning the classpath.
+     */
+    public static final String STARTUP_OPTIMIZED_PROFILE = "startup-optimized";
+
+    public static final String LOCATION = "META-INF/jpa-examples-components.index";
+
+    static final String ENTITY_PACKAGE = "com.example.domain.model";
+
+    static final String REPOSITORY_PACKAGE = "com.example.domain.repository";
+
+    private static final String ENTITIES_KEY = "entities";
+
+    private static final String REPOSITORIES_KEY = "repositories";
+
+    private final List<String> entityClassNames;
+
+    private final List<String> repositoryInterfaceNames;
+
+    ComponentIndex(List<String> entityClassNames, List<String> repositoryInterfaceNames) {
+        this.entityClassNames = Collections.unmodifiableList(entityClassNames);
+        this.repositoryInterfaceNames = Collections.unmodifiableList(repositoryInterfaceNames);
+    }
+
+    public List<String> getEntityClassNames() {
+        return entityClassNames;
+    }
+
+    public List<String> getRepositoryInterfaceNames() {
+        return repositoryInterfaceNames;
+    }
+
+    /**
+     * Loads the index, or scans the classpath if the index has not been generated (e.g. classes compiled by an IDE).
+     */
+    public static ComponentIndex loadOrScan(ClassLoader classLoader) {
+        InputStream in = classLoader.getResourceAsStream(LOCATION);
+        if (in == null) {
+            logger.warn("{} is not found. Scanning the classpath instead.", LOCATION);
+            return scan(classLoader);
+        }
+        Properties properties = new Properties();
+        try {
+            try {
+                properties.load(in);
+            } finally {
+                in.close();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load " + LOCATION, e);
+        }
+        return new ComponentIndex(split(properties.getProperty(ENTITIES_KEY)), split(properties.getProperty(REPOSITORIES_KEY)));
+    }
+
+    /**
+     * Scans the classpath for entity classes and repository interfaces, as {@code packagesToScan} and
+     * {@code jpa:repositories} do.
+     */
+    public static ComponentIndex scan(ClassLoader classLoader) {
+        ClassPathScanningCandidateComponentProvider entityScanner = new ClassPathScanningCandidateComponentProvider(false);
+        entityScanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        entityScanner.addIncludeFilter(new AnnotationTypeFilter(Entity.class));
+
+        ClassPathScanningCandidateComponentProvider repositoryScanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        repositoryScanner.setResourceLoader(new DefaultResourceLoader(classLoader));
+        repositoryScanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+        repositoryScanner.addExcludeFilter(new AnnotationTypeFilter(NoRepositoryBean.class));
+
+        return new ComponentIndex(classNamesOf(entityScanner.findCandidateComponents(ENTITY_PACKAGE)),
+                classNamesOf(repositoryScanner.findCandidateComponents(REPOSITORY_PACKAGE)));
+    }
+
+    void store(File file) throws IOException {
+        Properties properties = new Properties();
+        properties.setProperty(ENTITIES_KEY, StringUtils.collectionToCommaDelimitedString(entityClassNames));
+        properties.setProperty(REPOSITORIES_KEY, StringUtils.collectionToCommaDelimitedString(repositoryInterfaceNames));
+        File directory = file.getParentFile();
+        if (!directory.isDirectory() && !directory.mkdirs()) {
+            throw new IOException("Failed to create " + directory);
+        }
+        try (OutputStream out = new FileOutputStream(file)) {
+            properties.store(out, "Generated by " + ComponentIndexGenerator.class.getName());
+        }
+    }
+
+    private static List<String> classNamesOf(Iterable<BeanDefinition> beanDefinitions) {
+        List<String> classNames = new ArrayList<>();
+        for (BeanDefinition beanDefinition : beanDefinitions) {
+            classNames.add(beanDefinition.getBeanClassName());
+        }
+        Collections.sort(classNames);
+        return classNames;
+    }
+
+    private static List<String> split(String value) {
+        return new ArrayList<>(Arrays.asList(StringUtils.commaDelimitedListToStringArray(value)));
+    }
+
+}
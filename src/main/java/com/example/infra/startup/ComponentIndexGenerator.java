@@ -0,0 +1,33 @@
+package com.example.infra.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.File;
+
+/**
+ * Generates {@link ComponentIndex#LOCATION} into the class output directory. Runs in the {@code process-classes}
+ * phase of the build, which logs only warnings, so an index without entities or repositories is reported as a warning.
+ */
+public class ComponentIndexGenerator {
+
+    private static final Logger logger = LoggerFactory.getLogger(ComponentIndexGenerator.class);
+
+    public static void main(String[] args) throws Exception {
+        if (args.length != 1) {
+            throw new IllegalArgumentException("Usage: ComponentIndexGenerator <output directory>");
+        }
+        ClassLoader classLoader = Thread.currentThread().getContextClassLoader();
+        ComponentIndex index = ComponentIndex.scan(classLoader);
+        File file = new File(args[0], ComponentIndex.LOCATION);
+        index.store(file);
+        if (index.getEntityClassNames().isEmpty() || index.getRepositoryInterfaceNames().isEmpty()) {
+            logger.warn("Component index has no entities or repositories. entities={} repositories={} file={}",
+                    index.getEntityClassNames(), index.getRepositoryInterfaceNames(), file);
+        } else {
+            logger.info("Component index generated. entities={} repositories={} file={}",
+                    index.getEntityClassNames().size(), index.getRepositoryInterfaceNames().size(), file);
+        }
+    }
+
+}
@@ -0,0 +1,43 @@
+package com.example.infra.startup;
+
+import org.springframework.context.EnvironmentAware;
+import org.springframework.core.env.Environment;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.MutablePersistenceUnitInfo;
+import org.springframework.orm.jpa.persistenceunit.PersistenceUnitPostProcessor;
+import org.springframework.util.ClassUtils;
+
+import javax.persistence.PersistenceException;
+
+/**
+ * {@link LocalContainerEntityManagerFactoryBean} that takes the entity classes from the {@link ComponentIndex}
+ * instead of scanning {@code packagesToScan} when the {@value ComponentIndex#STARTUP_OPTIMIZED_PROFILE} profile
+ * is active.
+ */
+public class IndexedEntityManagerFactoryBean extends LocalContainerEntityManagerFactoryBean implements EnvironmentAware {
+
+    private Environment environment;
+
+    @Override
+    public void setEnvironment(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public void afterPropertiesSet() throws PersistenceException {
+        if (environment != null && environment.acceptsProfiles(ComponentIndex.STARTUP_OPTIMIZED_PROFILE)) {
+            final ComponentIndex index = ComponentIndex.loadOrScan(ClassUtils.getDefaultClassLoader());
+            setPackagesToScan(new String[0]);
+            setPersistenceUnitPostProcessors(new PersistenceUnitPostProcessor() {
+                @Override
+                public void postProcessPersistenceUnitInfo(MutablePersistenceUnitInfo pui) {
+                    for (String entityClassName : index.getEntityClassNames()) {
+                        pui.addManagedClassName(entityClassName);
+                    }
+                }
+            });
+        }
+        super.afterPropertiesSet();
+    }
+
+}
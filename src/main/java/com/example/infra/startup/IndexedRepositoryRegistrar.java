@@ -0,0 +1,75 @@
+package com.example.infra.startup;
+
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.BeanClassLoaderAware;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.beans.factory.support.BeanDefinitionBuilder;
+import org.springframework.beans.factory.support.BeanDefinitionRegistry;
+import org.springframework.beans.factory.support.BeanDefinitionRegistryPostProcessor;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.data.jpa.repository.support.JpaRepositoryFactoryBean;
+import org.springframework.data.repository.core.support.PropertiesBasedNamedQueries;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import java.io.IOException;
+import java.util.Properties;
+
+/**
+ * Registers the repositories listed in the {@link ComponentIndex}, as {@code jpa:repositories} does after
+ * scanning the classpath.
+ * <p/>
+ * A custom implementation is detected by the {@code Impl} postfix, and named queries are read from
+ * {@code namedQueriesLocation}, as in the defaults of {@code jpa:repositories}.
+ */
+public class IndexedRepositoryRegistrar implements BeanDefinitionRegistryPostProcessor, BeanClassLoaderAware {
+
+    private static final String IMPLEMENTATION_POSTFIX = "Impl";
+
+    private String namedQueriesLocation = "META-INF/jpa-named-queries.properties";
+
+    private ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+
+    public void setNamedQueriesLocation(String namedQueriesLocation) {
+        this.namedQueriesLocation = namedQueriesLocation;
+    }
+
+    @Override
+    public void setBeanClassLoader(ClassLoader classLoader) {
+        this.classLoader = classLoader;
+    }
+
+    @Override
+    public void postProcessBeanDefinitionRegistry(BeanDefinitionRegistry registry) throws BeansException {
+        ComponentIndex index = ComponentIndex.loadOrScan(classLoader);
+        PropertiesBasedNamedQueries namedQueries = new PropertiesBasedNamedQueries(loadNamedQueries());
+        for (String interfaceName : index.getRepositoryInterfaceNames()) {
+            String beanName = StringUtils.uncapitalize(ClassUtils.getShortName(interfaceName));
+            BeanDefinitionBuilder builder = BeanDefinitionBuilder.rootBeanDefinition(JpaRepositoryFactoryBean.class);
+            builder.addPropertyValue("repositoryInterface", interfaceName);
+            builder.addPropertyValue("namedQueries", namedQueries);
+            String implementationName = interfaceName + IMPLEMENTATION_POSTFIX;
+            if (ClassUtils.isPresent(implementationName, classLoader)) {
+                String implementationBeanName = beanName + IMPLEMENTATION_POSTFIX;
+                registry.registerBeanDefinition(implementationBeanName,
+                        BeanDefinitionBuilder.rootBeanDefinition(implementationName).getBeanDefinition());
+                builder.addPropertyReference("customImplementation", implementationBeanName);
+            }
+            registry.registerBeanDefinition(beanName, builder.getBeanDefinition());
+        }
+    }
+
+    @Override
+    public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) throws BeansException {
+        // NOP
+    }
+
+    private Properties loadNamedQueries() {
+        try {
+            return PropertiesLoaderUtils.loadAllProperties(namedQueriesLocation, classLoader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load " + namedQueriesLocation, e);
+        }
+    }
+
+}
@@ -0,0 +1,165 @@
+package com.example.infra.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.io.support.PropertiesLoaderUtils;
+import org.springframework.data.domain.Page;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.query.QueryUtils;
+import org.springframework.util.ClassUtils;
+import org.springframework.util.StringUtils;
+
+import javax.persistence.EntityManager;
+import javax.persistence.EntityManagerFactory;
+import java.io.IOException;
+import java.lang.reflect.Method;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * Compiles the JPQL of named queries and {@code @Query} methods (with their count queries) in parallel,
+ * so that the first requests do not pay for Hibernate query plan compilation.
+ * <p/>
+ * Spring Data validates {@code @Query} strings when it creates the repositories, but count queries of
+ * {@link Page} methods are compiled on the first call. Plans are kept in the query plan cache of the session factory.
+ * Queries that fail to compile are logged and skipped; the failure is reported again when the query is used.
+ */
+public class QueryPrewarmer {
+
+    private static final Logger logger = LoggerFactory.getLogger(QueryPrewarmer.class);
+
+    // Spring Data removes the wildcards around LIKE parameters (e.g. ":idPrefix%") before passing the query to JPA
+    private static final Pattern LIKE_WILDCARD_PATTERN = Pattern.compile("%?(:\\w+)%?");
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    private boolean enabled = false;
+    private int threads = 4;
+    private String namedQueriesLocation = "META-INF/jpa-named-queries.properties";
+
+    private int compiledCount;
+    private int failedCount;
+
+    public QueryPrewarmer(EntityManagerFactory entityManagerFactory) {
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setNamedQueriesLocation(String namedQueriesLocation) {
+        this.namedQueriesLocation = namedQueriesLocation;
+    }
+
+    public void prewarm() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        long start = System.nanoTime();
+        Set<String> queries = collectQueries();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Boolean>> futures = new ArrayList<>();
+            for (final String query : queries) {
+                futures.add(executor.submit(new Callable<Boolean>() {
+                    @Override
+                    public Boolean call() {
+                        return compile(query);
+                    }
+                }));
+            }
+            for (Future<Boolean> future : futures) {
+                try {
+                    if (future.get()) {
+                        compiledCount++;
+                    } else {
+                        failedCount++;
+                    }
+                } catch (ExecutionException e) {
+                    failedCount++;
+                    logger.warn("Failed to prewarm a query.", e.getCause());
+                }
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+        logger.info("Queries prewarmed. compiled={}, failed={}, threads={}, elapsed={}ms",
+                compiledCount, failedCount, threads, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    public int getCompiledCount() {
+        return compiledCount;
+    }
+
+    public int getFailedCount() {
+        return failedCount;
+    }
+
+    Set<String> collectQueries() {
+        ClassLoader classLoader = ClassUtils.getDefaultClassLoader();
+        Set<String> queries = new LinkedHashSet<>();
+        Properties namedQueries;
+        try {
+            namedQueries = PropertiesLoaderUtils.loadAllProperties(namedQueriesLocation, classLoader);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load " + namedQueriesLocation, e);
+        }
+        for (String name : namedQueries.stringPropertyNames()) {
+            queries.add(normalize(namedQueries.getProperty(name)));
+        }
+        for (String interfaceName : ComponentIndex.loadOrScan(classLoader).getRepositoryInterfaceNames()) {
+            Class<?> repositoryInterface = ClassUtils.resolveClassName(interfaceName, classLoader);
+            for (Method method : repositoryInterface.getMethods()) {
+                Query annotation = method.getAnnotation(Query.class);
+                if (annotation == null || annotation.nativeQuery()) {
+                    continue;
+                }
+                String query = StringUtils.hasText(annotation.value())
+                        ? annotation.value() : namedQueries.getProperty(annotation.name());
+                if (query == null) {
+                    continue;
+                }
+                query = normalize(query);
+                queries.add(query);
+                if (Page.class.isAssignableFrom(method.getReturnType())) {
+                    queries.add(StringUtils.hasText(annotation.countQuery())
+                            ? normalize(annotation.countQuery()) : QueryUtils.createCountQueryFor(query));
+                }
+            }
+        }
+        return queries;
+    }
+
+    private boolean compile(String query) {
+        EntityManager entityManager = entityManagerFactory.createEntityManager();
+        try {
+            entityManager.createQuery(query);
+            return true;
+        } catch (RuntimeException e) {
+            logger.warn("Failed to compile a query. query=" + query, e);
+            return false;
+        } finally {
+            entityManager.close();
+        }
+    }
+
+    private static String normalize(String query) {
+        return LIKE_WILDCARD_PATTERN.matcher(query).replaceAll("$1");
+    }
+
+}
@@ -0,0 +1,141 @@
+package com.example.infra.startup;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.context.ApplicationListener;
+import org.springframework.context.event.ContextRefreshedEvent;
+import org.springframework.core.Ordered;
+import org.springframework.core.PriorityOrdered;
+import org.springframework.data.repository.core.support.RepositoryFactoryInformation;
+import org.springframework.jmx.export.annotation.ManagedAttribute;
+import org.springframework.jmx.export.annotation.ManagedResource;
+import org.springframework.orm.jpa.EntityManagerFactoryInfo;
+
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Records the initialization time of beans and reports startup phase timings when the context has been refreshed.
+ * <p/>
+ * Phases are the entity manager factory (persistence unit and Hibernate bootstrap), the repositories
+ * (proxy creation and query method parsing) and the other beans. The report also contains the total time of
+ * the context refresh, the JVM uptime and the slowest beans.
+ */
+@ManagedResource(description = "Startup phase timings")
+public class StartupTimingRecorder implements BeanPostProcessor, ApplicationListener<ContextRefreshedEvent>, PriorityOrdered {
+
+    private static final Logger logger = LoggerFactory.getLogger(StartupTimingRecorder.class);
+
+    private final long createdNanos = System.nanoTime();
+    private final ConcurrentMap<String, Long> startNanos = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Long> beanNanos = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, String> beanPhases = new ConcurrentHashMap<>();
+
+    private int reportedBeanCount = 10;
+
+    private volatile Map<String, Long> phaseMillis = Collections.emptyMap();
+    private volatile String report = "";
+
+    public void setReportedBeanCount(int reportedBeanCount) {
+        this.reportedBeanCount = reportedBeanCount;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) throws BeansException {
+        startNanos.put(beanName, System.nanoTime());
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) throws BeansException {
+        Long start = startNanos.remove(beanName);
+        if (start != null) {
+            beanNanos.put(beanName, System.nanoTime() - start);
+            beanPhases.put(beanName, phaseOf(bean));
+        }
+        return bean;
+    }
+
+    @Override
+    public void onApplicationEvent(ContextRefreshedEvent event) {
+        Map<String, Long> phases = new LinkedHashMap<>();
+        phases.put("entityManagerFactory", 0L);
+        phases.put("repositories", 0L);
+        phases.put("otherBeans", 0L);
+        for (Map.Entry<String, Long> entry : beanNanos.entrySet()) {
+            String phase = beanPhases.get(entry.getKey());
+            phases.put(phase, phases.get(phase) + entry.getValue());
+        }
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            entry.setValue(TimeUnit.NANOSECONDS.toMillis(entry.getValue()));
+        }
+        phases.put("contextRefresh", TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - createdNanos));
+        phases.put("jvmUptime", ManagementFactory.getRuntimeMXBean().getUptime());
+        phaseMillis = Collections.unmodifiableMap(phases);
+
+        StringBuilder builder = new StringBuilder();
+        for (Map.Entry<String, Long> entry : phases.entrySet()) {
+            builder.append(entry.getKey()).append(':').append(entry.getValue()).append("ms\t");
+        }
+        builder.append("slowestBeans:").append(slowestBeans());
+        report = builder.toString();
+        logger.info("Startup timings. context={}\t{}", event.getApplicationContext().getDisplayName(), report);
+    }
+
+    /**
+     * Returns elapsed milliseconds per startup phase of the last context refresh.
+     */
+    public Map<String, Long> getPhaseMillis() {
+        return phaseMillis;
+    }
+
+    @ManagedAttribute(description = "Startup phase timings of the last context refresh")
+    public String getReport() {
+        return report;
+    }
+
+    private String slowestBeans() {
+        List<Map.Entry<String, Long>> entries = new ArrayList<>(beanNanos.entrySet());
+        Collections.sort(entries, new Comparator<Map.Entry<String, Long>>() {
+            @Override
+            public int compare(Map.Entry<String, Long> o1, Map.Entry<String, Long> o2) {
+                return o2.getValue().compareTo(o1.getValue());
+            }
+        });
+        StringBuilder builder = new StringBuilder("[");
+        for (int i = 0; i < Math.min(reportedBeanCount, entries.size()); i++) {
+            if (i > 0) {
+                builder.append(", ");
+            }
+            builder.append(entries.get(i).getKey()).append('=')
+                    .append(TimeUnit.NANOSECONDS.toMillis(entries.get(i).getValue())).append("ms");
+        }
+        return builder.append(']').toString();
+    }
+
+    private static String phaseOf(Object bean) {
+        if (bean instanceof EntityManagerFactoryInfo) {
+            return "entityManagerFactory";
+        }
+        if (bean instanceof RepositoryFactoryInformation) {
+            return "repositories";
+        }
+        return "otherBeans";
+    }
+
+}
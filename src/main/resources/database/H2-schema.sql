@@ -16,6 +16,7 @@ CREATE TABLE task (
 CREATE INDEX ix_task_create_at ON task(created_at);
 CREATE INDEX ix_task_deadline_date ON task(deadline_date);
 CREATE INDEX ix_task_finished ON task(finished);
+CREATE INDEX ix_task_finished_created_at_id ON task(finished, created_at, id);
 
 CREATE TABLE member (
   id CHAR(36),
@@ -0,0 +1,303 @@
+package com.example.benchmark.data;
+
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Date;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Fills {@code task} and {@code member} with synthetic rows using parallel JDBC batch inserts.
+ * <p/>
+ * Rows are generated in fixed-size chunks, and each chunk has its own random generator derived from the seed and
+ * the chunk index, so the same arguments always produce the same rows regardless of thread scheduling.
+ * Distributions:
+ * <ul>
+ * <li>{@code created_at}: within {@code days} before {@code baseTime}, skewed toward recent days</li>
+ * <li>{@code finished}: {@code finishedRatio} of tasks, more likely for older tasks;
+ * {@code finished_at} is an exponential delay (mean 3 days) after creation</li>
+ * <li>{@code deadline_date}: 20% none, otherwise a log-normal delay (median 7 days) after creation</li>
+ * <li>{@code title}: log-normal length (median 30 characters); {@code description}: 30% none, otherwise
+ * log-normal length (median 200 characters, up to 4000)</li>
+ * </ul>
+ * Arguments are given as {@code key=value}: {@code url}, {@code username}, {@code password},
+ * {@code createSchema} (default true), {@code tasks} (default 1000000), {@code members} (default 100000),
+ * {@code threads} (default number of processors), {@code batchSize} (default 1000), {@code seed} (default 1),
+ * {@code baseTime} (epoch millis, default 2015-01-01T00:00:00Z) and {@code days} (default 730).
+ * e.g. {@code mvn -Pdata-generator -DskipTests verify -Dgenerator.args="tasks=20000000 threads=8"}
+ */
+public class SyntheticDataGenerator {
+
+    private static final int CHUNK_SIZE = 10000;
+
+    private static final long DAY_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    private static final String[] WORDS = {
+            "review", "design", "document", "update", "release", "fix", "deploy", "test", "meeting", "report",
+            "customer", "order", "invoice", "database", "index", "query", "batch", "schedule", "backup", "migrate",
+            "server", "client", "request", "response", "cache", "session", "security", "audit", "monthly", "weekly",
+            "the", "for", "and", "with", "of", "to", "in", "on", "a", "new"};
+
+    private String url = "jdbc:h2:./target/synthetic-data/jpa-examples;MVCC=TRUE";
+    private String username = "sa";
+    private String password = "";
+    private boolean createSchema = true;
+    private long tasks = 1000000;
+    private long members = 100000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int batchSize = 1000;
+    private long seed = 1;
+    private long baseTime = 1420070400000L;
+    private int days = 730;
+    private double finishedRatio = 0.7;
+
+    public static void main(String[] args) throws Exception {
+        SyntheticDataGenerator generator = new SyntheticDataGenerator();
+        generator.configure(args);
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(generator.url, generator.username, generator.password);
+        if (generator.createSchema) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+            populator.addScript(new ClassPathResource("database/H2-schema.sql"));
+            DatabasePopulatorUtils.execute(populator, dataSource);
+        }
+        generator.generate(dataSource);
+    }
+
+    void configure(String[] args) {
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (token.isEmpty()) {
+                    continue;
+                }
+                String[] keyValue = token.split("=", 2);
+                if (keyValue.length != 2) {
+                    throw new IllegalArgumentException("Arguments must be key=value: " + token);
+                }
+                String value = keyValue[1];
+                switch (keyValue[0]) {
+                    case "url":
+                        url = value;
+                        break;
+                    case "username":
+                        username = value;
+                        break;
+                    case "password":
+                        password = value;
+                        break;
+                    case "createSchema":
+                        createSchema = Boolean.parseBoolean(value);
+                        break;
+                    case "tasks":
+                        tasks = Long.parseLong(value);
+                        break;
+                    case "members":
+                        members = Long.parseLong(value);
+                        break;
+                    case "threads":
+                        threads = Integer.parseInt(value);
+                        break;
+                    case "batchSize":
+                        batchSize = Integer.parseInt(value);
+                        break;
+                    case "seed":
+                        seed = Long.parseLong(value);
+                        break;
+                    case "baseTime":
+                        baseTime = Long.parseLong(value);
+                        break;
+                    case "days":
+                        days = Integer.parseInt(value);
+                        break;
+                    case "finishedRatio":
+                        finishedRatio = Double.parseDouble(value);
+                        break;
+                    default:
+                        throw new IllegalArgumentException("Unknown argument: " + token);
+                }
+            }
+        }
+    }
+
+    public void setTasks(long tasks) {
+        this.tasks = tasks;
+    }
+
+    public void setMembers(long members) {
+        this.members = members;
+    }
+
+    public void setThreads(int threads) {
+        this.threads = threads;
+    }
+
+    public void setSeed(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * Inserts the tasks and members into the specified data source. The tables must exist.
+     */
+    public void generate(DataSource dataSource) throws Exception {
+        long start = System.nanoTime();
+        insert(dataSource, "task", tasks, new TaskChunkWriter());
+        insert(dataSource, "member", members, new MemberChunkWriter());
+        System.out.printf("tasks:%d\tmembers:%d\tthreads:%d\telapsed:%dms%n",
+                tasks, members, threads, TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+    }
+
+    private void insert(final DataSource dataSource, final String table, final long rows, final ChunkWriter writer) throws Exception {
+        final long chunks = (rows + CHUNK_SIZE - 1) / CHUNK_SIZE;
+        final AtomicLong nextChunk = new AtomicLong();
+        final AtomicLong insertedRows = new AtomicLong();
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<Void>> futures = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                futures.add(executor.submit(new Callable<Void>() {
+                    @Override
+                    public Void call() throws SQLException {
+                        try (Connection connection = dataSource.getConnection()) {
+                            connection.setAutoCommit(false);
+                            long chunk;
+                            while ((chunk = nextChunk.getAndIncrement()) < chunks) {
+                                long first = chunk * CHUNK_SIZE;
+                                long last = Math.min(first + CHUNK_SIZE, rows);
+                                writer.write(connection, new Random(seed * 1000003L + chunk), first, last);
+                                connection.commit();
+                                long inserted = insertedRows.addAndGet(last - first);
+                                if ((chunk + 1) % 100 == 0) {
+                                    System.out.printf("%s:%d/%d%n", table, inserted, rows);
+                                }
+                            }
+                        }
+                        return null;
+                    }
+                }));
+            }
+            for (Future<Void> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Returns the probability that a task of the given age is finished. It grows linearly with the age rank
+     * (the distribution function of the product of two uniform variables, which is itself uniform), so its mean
+     * over all tasks is exactly {@code finishedRatio} and it stays within [0, 1] without clamping.
+     */
+    private double finishedProbability(double age) {
+        double ageRank = age <= 0 ? 0 : age * (1 - Math.log(age));
+        return finishedRatio + (2 * ageRank - 1) * Math.min(finishedRatio, 1 - finishedRatio);
+    }
+
+    private interface ChunkWriter {
+        void write(Connection connection, Random random, long first, long last) throws SQLException;
+    }
+
+    private class TaskChunkWriter implements ChunkWriter {
+        @Override
+        public void write(Connection connection, Random random, long first, long last) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO task (id, title, description, deadline_date, finished, finished_at, created_at, version)"
+                            + " VALUES (?, ?, ?, ?, ?, ?, ?, ?)")) {
+                int batched = 0;
+                for (long i = first; i < last; i++) {
+                    double age = random.nextDouble() * random.nextDouble();
+                    long createdAt = baseTime - (long) (age * days * DAY_MILLIS);
+                    boolean finished = random.nextDouble() < finishedProbability(age);
+
+                    statement.setString(1, new UUID(random.nextLong(), random.nextLong()).toString());
+                    statement.setString(2, text(random, 30, 10, 255));
+                    if (random.nextDouble() < 0.3) {
+                        statement.setNull(3, Types.VARCHAR);
+                    } else {
+                        statement.setString(3, text(random, 200, 10, 4000));
+                    }
+                    if (random.nextDouble() < 0.2) {
+                        statement.setNull(4, Types.DATE);
+                    } else {
+                        long deadlineDays = Math.min(365, Math.round(Math.exp(Math.log(7) + random.nextGaussian() * 0.8)));
+                        statement.setDate(4, new Date(createdAt + deadlineDays * DAY_MILLIS));
+                    }
+                    statement.setBoolean(5, finished);
+                    if (finished) {
+                        long delay = (long) (-Math.log(1 - random.nextDouble()) * 3 * DAY_MILLIS);
+                        statement.setTimestamp(6, new Timestamp(Math.min(createdAt + delay, baseTime)));
+                    } else {
+                        statement.setNull(6, Types.TIMESTAMP);
+                    }
+                    statement.setTimestamp(7, new Timestamp(createdAt));
+                    statement.setLong(8, finished ? 1 : 0);
+                    statement.addBatch();
+                    if (++batched == batchSize) {
+                        statement.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+
+    private class MemberChunkWriter implements ChunkWriter {
+        @Override
+        public void write(Connection connection, Random random, long first, long last) throws SQLException {
+            try (PreparedStatement statement = connection.prepareStatement(
+                    "INSERT INTO member (id, login_id, name, version) VALUES (?, ?, ?, 0)")) {
+                int batched = 0;
+                for (long i = first; i < last; i++) {
+                    statement.setString(1, new UUID(random.nextLong(), random.nextLong()).toString());
+                    statement.setString(2, String.format("user%09d", i));
+                    statement.setString(3, text(random, 12, 3, 64));
+                    statement.addBatch();
+                    if (++batched == batchSize) {
+                        statement.executeBatch();
+                        batched = 0;
+                    }
+                }
+                if (batched > 0) {
+                    statement.executeBatch();
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a text of words whose length follows a log-normal distribution with the specified median.
+     */
+    private static String text(Random random, int medianLength, int minLength, int maxLength) {
+        int length = (int) Math.round(Math.exp(Math.log(medianLength) + random.nextGaussian() * 0.6));
+        length = Math.max(minLength, Math.min(maxLength, length));
+        StringBuilder text = new StringBuilder(length + 16);
+        while (text.length() < length) {
+            if (text.length() > 0) {
+                text.append(' ');
+            }
+            text.append(WORDS[random.nextInt(WORDS.length)]);
+        }
+        text.setLength(length);
+        return text.toString();
+    }
+
+}
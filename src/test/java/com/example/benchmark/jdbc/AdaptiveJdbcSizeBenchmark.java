@@ -0,0 +1,181 @@
+package com.example.benchmark.jdbc;
+
+import com.example.infra.jdbc.AdaptiveBatchSizeController;
+import com.example.infra.jdbc.AdaptiveFetchSizeInterceptor;
+import com.example.infra.jdbc.FetchSizeContext;
+import com.example.infra.jdbc.InstrumentedDataSource;
+import org.h2.jdbcx.JdbcDataSource;
+import org.h2.tools.Server;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.io.IOException;
+import java.net.ServerSocket;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the static JDBC fetch and batch sizes ({@code hibernate.jdbc.fetch_size=100},
+ * {@code hibernate.jdbc.batch_size=30}) with the adaptive ones.
+ * <ul>
+ * <li>{@code STATIC}: every query fetches 100 rows per round trip and every batch has 30 statements</li>
+ * <li>{@code ADAPTIVE}: a page is fetched with {@link AdaptiveFetchSizeInterceptor#fetchSizeOf(int)}, a stream
+ * with {@value #STREAM_FETCH_SIZE} rows per round trip, and batches are sized by {@link AdaptiveBatchSizeController}</li>
+ * </ul>
+ * The in-memory H2 database ignores fetch sizes, so the benchmark connects to an H2 TCP server in the same process.
+ * Round trips over the loopback interface are cheaper than over a network, so the gains are a lower bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AdaptiveJdbcSizeBenchmark {
+
+    private static final int TABLE_ROWS = 100000;
+
+    private static final int STATIC_FETCH_SIZE = 100;
+
+    private static final int STATIC_BATCH_SIZE = 30;
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    private static final String SELECT_SQL = "SELECT id, title, description FROM benchmark_task ORDER BY id LIMIT ?";
+
+    private static final String INSERT_SQL = "INSERT INTO benchmark_insert (id, title, description) VALUES (?, ?, ?)";
+
+    public enum SizeMode {
+        STATIC, ADAPTIVE
+    }
+
+    @Param({"STATIC", "ADAPTIVE"})
+    SizeMode sizeMode;
+
+    /**
+     * Number of rows read or written per operation. 20 is a page, 100000 is an export.
+     */
+    @Param({"20", "1000", "100000"})
+    int rows;
+
+    Server server;
+
+    InstrumentedDataSource dataSource;
+
+    AdaptiveFetchSizeInterceptor fetchSizeInterceptor;
+
+    AdaptiveBatchSizeController batchSizeController;
+
+    Connection connection;
+
+    int nextId;
+
+    @Setup(Level.Trial)
+    public void startServer() throws SQLException, IOException {
+        int port;
+        try (ServerSocket socket = new ServerSocket(0)) {
+            port = socket.getLocalPort();
+        }
+        server = Server.createTcpServer("-tcpPort", String.valueOf(port)).start();
+        JdbcDataSource h2DataSource = new JdbcDataSource();
+        h2DataSource.setURL("jdbc:h2:tcp://localhost:" + port + "/mem:adaptive-benchmark;DB_CLOSE_DELAY=-1");
+        h2DataSource.setUser("sa");
+        h2DataSource.setPassword("");
+        dataSource = new InstrumentedDataSource(h2DataSource);
+        fetchSizeInterceptor = new AdaptiveFetchSizeInterceptor();
+        batchSizeController = new AdaptiveBatchSizeController();
+
+        connection = dataSource.getConnection();
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP TABLE IF EXISTS benchmark_task");
+            statement.execute("CREATE TABLE benchmark_task (id INT PRIMARY KEY, title VARCHAR(256), description VARCHAR(4000))");
+            statement.execute("INSERT INTO benchmark_task SELECT x, 'title ' || x, SPACE(200) FROM SYSTEM_RANGE(1, " + TABLE_ROWS + ")");
+            statement.execute("DROP TABLE IF EXISTS benchmark_insert");
+            statement.execute("CREATE TABLE benchmark_insert (id INT PRIMARY KEY, title VARCHAR(256), description VARCHAR(4000))");
+        }
+        connection.setAutoCommit(false);
+    }
+
+    @Setup(Level.Iteration)
+    public void truncate() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("TRUNCATE TABLE benchmark_insert");
+        }
+        connection.commit();
+        nextId = 0;
+    }
+
+    @TearDown(Level.Trial)
+    public void stopServer() throws SQLException {
+        connection.close();
+        server.stop();
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole) throws SQLException {
+        int previous = 0;
+        if (sizeMode == SizeMode.ADAPTIVE) {
+            // a page comes from the Pageable, an export streams through a cursor
+            previous = FetchSizeContext.begin(rows <= fetchSizeInterceptor.getMaxFetchSize()
+                    ? fetchSizeInterceptor.fetchSizeOf(rows) : STREAM_FETCH_SIZE);
+        }
+        try (PreparedStatement statement = connection.prepareStatement(SELECT_SQL)) {
+            statement.setFetchSize(STATIC_FETCH_SIZE);
+            statement.setInt(1, rows);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    blackhole.consume(resultSet.getInt(1));
+                    blackhole.consume(resultSet.getString(2));
+                    blackhole.consume(resultSet.getString(3));
+                }
+            }
+        } finally {
+            if (sizeMode == SizeMode.ADAPTIVE) {
+                FetchSizeContext.end(previous);
+            }
+        }
+        connection.commit();
+    }
+
+    @Benchmark
+    public void write() throws SQLException {
+        try (PreparedStatement statement = connection.prepareStatement(INSERT_SQL)) {
+            int written = 0;
+            while (written < rows) {
+                int batchSize = sizeMode == SizeMode.ADAPTIVE ? batchSizeController.getBatchSize() : STATIC_BATCH_SIZE;
+                int size = Math.min(batchSize, rows - written);
+                long start = System.nanoTime();
+                for (int i = 0; i < size; i++) {
+                    int id = nextId++;
+                    statement.setInt(1, id);
+                    statement.setString(2, "title " + id);
+                    statement.setString(3, "description " + id);
+                    statement.addBatch();
+                }
+                statement.executeBatch();
+                if (sizeMode == SizeMode.ADAPTIVE) {
+                    batchSizeController.record(size, System.nanoTime() - start);
+                }
+                written += size;
+            }
+        }
+        connection.commit();
+    }
+
+}
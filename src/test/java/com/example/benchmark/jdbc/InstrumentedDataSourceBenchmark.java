@@ -0,0 +1,109 @@
+package com.example.benchmark.jdbc;
+
+import com.example.infra.jdbc.InstrumentedDataSource;
+import net.sf.log4jdbc.Log4jdbcProxyDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the per-statement overhead of the log4jdbc proxy and {@link InstrumentedDataSource}.
+ * <p/>
+ * log4jdbc logs through the benchmark logback configuration ({@code jdbc.sqltiming} at debug level, as in the former
+ * production configuration), which discards the events so that the cost of building them is measured without I/O.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class InstrumentedDataSourceBenchmark {
+
+    private static final String SELECT_SQL = "SELECT id, title FROM benchmark_task WHERE id = ?";
+
+    @Param({"RAW", "LOG4JDBC", "INSTRUMENTED", "INSTRUMENTED_SAMPLED"})
+    public String path;
+
+    DataSource dataSource;
+
+    @Setup(Level.Trial)
+    public void setupDataSource() {
+        DriverManagerDataSource realDataSource = new DriverManagerDataSource("jdbc:h2:mem:instrumented-benchmark;DB_CLOSE_DELAY=-1", "sa", "");
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(realDataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS benchmark_task");
+        jdbcTemplate.execute("CREATE TABLE benchmark_task (id INT PRIMARY KEY, title VARCHAR(256))");
+        for (int i = 0; i < 100; i++) {
+            jdbcTemplate.update("INSERT INTO benchmark_task VALUES (?, ?)", i, "title " + i);
+        }
+
+        switch (path) {
+            case "RAW":
+                dataSource = realDataSource;
+                break;
+            case "LOG4JDBC":
+                dataSource = new Log4jdbcProxyDataSource(realDataSource);
+                break;
+            case "INSTRUMENTED":
+                dataSource = new InstrumentedDataSource(realDataSource);
+                break;
+            case "INSTRUMENTED_SAMPLED":
+                InstrumentedDataSource instrumentedDataSource = new InstrumentedDataSource(realDataSource);
+                instrumentedDataSource.setSqlLogSampleRate(100);
+                dataSource = instrumentedDataSource;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown path: " + path);
+        }
+    }
+
+    @State(Scope.Thread)
+    public static class ConnectionState {
+
+        Connection connection;
+        int nextId;
+
+        @Setup(Level.Trial)
+        public void openConnection(InstrumentedDataSourceBenchmark benchmark) throws SQLException {
+            connection = benchmark.dataSource.getConnection();
+        }
+
+        @TearDown(Level.Trial)
+        public void closeConnection() throws SQLException {
+            connection.close();
+        }
+    }
+
+    @Benchmark
+    public void selectById(ConnectionState state, Blackhole blackhole) throws SQLException {
+        try (PreparedStatement statement = state.connection.prepareStatement(SELECT_SQL)) {
+            statement.setInt(1, state.nextId++ % 100);
+            try (ResultSet resultSet = statement.executeQuery()) {
+                while (resultSet.next()) {
+                    blackhole.consume(resultSet.getString(2));
+                }
+            }
+        }
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.example.benchmark.jpa;
+
+import com.example.infra.jpa.SqlCommentTagInterceptor;
+import com.example.infra.monitoring.RepositoryInvocationContextInterceptor;
+import org.apache.commons.dbcp2.BasicDataSource;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.slf4j.MDC;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the cost of {@link SqlCommentTagInterceptor} on a pooled prepared statement round trip.
+ * <p/>
+ * The pool caches prepared statements by SQL string, so {@code METHOD_AND_TRACK} (a new X-Track per call)
+ * shows the cost of the statement cache misses caused by per-request tags.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SqlCommentTagInterceptorBenchmark {
+
+    private static final String SELECT_SQL = "SELECT id, title FROM benchmark_task WHERE id = ?";
+
+    @Param({"NONE", "METHOD", "METHOD_AND_TRACK"})
+    public SqlCommentTagInterceptor.Mode mode;
+
+    BasicDataSource dataSource;
+
+    BenchmarkTaskRepository repository;
+
+    @Setup(Level.Trial)
+    public void setup() throws SQLException {
+        dataSource = new BasicDataSource();
+        dataSource.setDriverClassName("org.h2.Driver");
+        dataSource.setUrl("jdbc:h2:mem:sql-comment-tag-benchmark;DB_CLOSE_DELAY=-1");
+        dataSource.setUsername("sa");
+        dataSource.setPassword("");
+        dataSource.setPoolPreparedStatements(true);
+        dataSource.setMaxOpenPreparedStatements(100);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("DROP TABLE IF EXISTS benchmark_task");
+        jdbcTemplate.execute("CREATE TABLE benchmark_task (id INT PRIMARY KEY, title VARCHAR(256))");
+        for (int i = 0; i < 100; i++) {
+            jdbcTemplate.update("INSERT INTO benchmark_task VALUES (?, ?)", i, "title " + i);
+        }
+
+        SqlCommentTagInterceptor.setMode(mode);
+        ProxyFactory proxyFactory = new ProxyFactory(new JdbcBenchmarkTaskRepository(dataSource, new SqlCommentTagInterceptor()));
+        proxyFactory.addInterface(BenchmarkTaskRepository.class);
+        proxyFactory.addAdvice(new RepositoryInvocationContextInterceptor());
+        repository = (BenchmarkTaskRepository) proxyFactory.getProxy();
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws SQLException {
+        SqlCommentTagInterceptor.setMode(SqlCommentTagInterceptor.Mode.NONE);
+        dataSource.close();
+    }
+
+    @State(Scope.Thread)
+    public static class RequestState {
+        int nextId;
+    }
+
+    @Benchmark
+    public String findOneById(RequestState state) throws SQLException {
+        MDC.put("X-Track", UUID.randomUUID().toString().replace("-", ""));
+        try {
+            return repository.findOneById(state.nextId++ % 100);
+        } finally {
+            MDC.remove("X-Track");
+        }
+    }
+
+    public interface BenchmarkTaskRepository {
+        String findOneById(int id) throws SQLException;
+    }
+
+    static class JdbcBenchmarkTaskRepository implements BenchmarkTaskRepository {
+
+        private final BasicDataSource dataSource;
+        private final SqlCommentTagInterceptor interceptor;
+
+        JdbcBenchmarkTaskRepository(BasicDataSource dataSource, SqlCommentTagInterceptor interceptor) {
+            this.dataSource = dataSource;
+            this.interceptor = interceptor;
+        }
+
+        @Override
+        public String findOneById(int id) throws SQLException {
+            try (Connection connection = dataSource.getConnection();
+                 PreparedStatement statement = connection.prepareStatement(interceptor.onPrepareStatement(SELECT_SQL))) {
+                statement.setInt(1, id);
+                try (ResultSet resultSet = statement.executeQuery()) {
+                    return resultSet.next() ? resultSet.getString(2) : null;
+                }
+            }
+        }
+    }
+
+}
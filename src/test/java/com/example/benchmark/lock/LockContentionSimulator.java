@@ -0,0 +1,260 @@
+package com.example.benchmark.lock;
+
+import com.example.benchmark.repository.BenchmarkDataSet;
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.monitoring.LatencyHistogram;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.dao.PessimisticLockingFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.persistence.LockModeType;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drives N threads against M hot tasks under each lock mode and reports throughput, latency percentiles,
+ * lock failure rate and version conflict rate.
+ * <p/>
+ * Each operation is a read-modify-write transaction: find a hot task with the lock mode, hold it for
+ * {@code thinkTimeMillis}, and update its description. Arguments are given as {@code key=value}:
+ * <ul>
+ * <li>{@code threads} (default 16)</li>
+ * <li>{@code hotTasks} (default 4)</li>
+ * <li>{@code durationSeconds} per lock mode (default 10)</li>
+ * <li>{@code thinkTimeMillis} (default 1)</li>
+ * <li>{@code lockTimeoutMillis}: H2 lock timeout of each transaction. -1 keeps the configured URL setting (default -1)</li>
+ * <li>{@code lockModes}: comma separated (default NONE and all modes used by {@link TaskRepository})</li>
+ * <li>{@code seed} (default 1)</li>
+ * </ul>
+ * e.g. {@code mvn -Plock-simulator -DskipTests verify -Dsimulator.args="threads=32 hotTasks=2 lockTimeoutMillis=1000"}
+ */
+public class LockContentionSimulator {
+
+    private static final List<LockModeType> DEFAULT_LOCK_MODES = Arrays.asList(
+            LockModeType.NONE,
+            LockModeType.PESSIMISTIC_WRITE,
+            LockModeType.PESSIMISTIC_READ,
+            LockModeType.PESSIMISTIC_FORCE_INCREMENT,
+            LockModeType.OPTIMISTIC,
+            LockModeType.OPTIMISTIC_FORCE_INCREMENT);
+
+    private final int threads;
+    private final int hotTasks;
+    private final long durationNanos;
+    private final long thinkTimeMillis;
+    private final long lockTimeoutMillis;
+    private final List<LockModeType> lockModes;
+    private final long seed;
+
+    private final BenchmarkDataSet dataSet;
+    private final TaskRepository taskRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    LockContentionSimulator(String[] args) {
+        int threads = 16;
+        int hotTasks = 4;
+        long durationSeconds = 10;
+        long thinkTimeMillis = 1;
+        long lockTimeoutMillis = -1;
+        List<LockModeType> lockModes = DEFAULT_LOCK_MODES;
+        long seed = 1;
+        List<String> arguments = new ArrayList<>();
+        for (String arg : args) {
+            for (String token : arg.trim().split("\\s+")) {
+                if (!token.isEmpty()) {
+                    arguments.add(token);
+                }
+            }
+        }
+        for (String arg : arguments) {
+            String[] keyValue = arg.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Arguments must be key=value: " + arg);
+            }
+            switch (keyValue[0]) {
+                case "threads":
+                    threads = Integer.parseInt(keyValue[1]);
+                    break;
+                case "hotTasks":
+                    hotTasks = Integer.parseInt(keyValue[1]);
+                    break;
+                case "durationSeconds":
+                    durationSeconds = Long.parseLong(keyValue[1]);
+                    break;
+                case "thinkTimeMillis":
+                    thinkTimeMillis = Long.parseLong(keyValue[1]);
+                    break;
+                case "lockTimeoutMillis":
+                    lockTimeoutMillis = Long.parseLong(keyValue[1]);
+                    break;
+                case "lockModes":
+                    lockModes = new ArrayList<>();
+                    for (String lockMode : keyValue[1].split(",")) {
+                        lockModes.add(LockModeType.valueOf(lockMode.trim()));
+                    }
+                    break;
+                case "seed":
+                    seed = Long.parseLong(keyValue[1]);
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        this.threads = threads;
+        this.hotTasks = Math.min(hotTasks, BenchmarkDataSet.TASK_COUNT);
+        this.durationNanos = TimeUnit.SECONDS.toNanos(durationSeconds);
+        this.thinkTimeMillis = thinkTimeMillis;
+        this.lockTimeoutMillis = lockTimeoutMillis;
+        this.lockModes = lockModes;
+        this.seed = seed;
+
+        this.dataSet = new BenchmarkDataSet();
+        this.taskRepository = dataSet.getBean(TaskRepository.class);
+        this.jdbcTemplate = dataSet.getBean("jdbcTemplate", JdbcTemplate.class);
+        this.transactionTemplate = new TransactionTemplate(
+                dataSet.getBean("transactionManager", PlatformTransactionManager.class));
+    }
+
+    public static void main(String[] args) throws InterruptedException {
+        LockContentionSimulator simulator = new LockContentionSimulator(args);
+        try {
+            simulator.run();
+        } finally {
+            simulator.dataSet.close();
+        }
+    }
+
+    void run() throws InterruptedException {
+        System.out.printf("threads:%d\thotTasks:%d\tdurationSeconds:%d\tthinkTimeMillis:%d\tlockTimeoutMillis:%d%n",
+                threads, hotTasks, TimeUnit.NANOSECONDS.toSeconds(durationNanos), thinkTimeMillis, lockTimeoutMillis);
+        for (LockModeType lockMode : lockModes) {
+            dataSet.resetTasks();
+            System.out.println(simulate(lockMode));
+        }
+    }
+
+    private Result simulate(final LockModeType lockMode) throws InterruptedException {
+        final Result result = new Result(lockMode);
+        final CountDownLatch start = new CountDownLatch(1);
+        final long[] endNanos = new long[1];
+        List<Thread> workers = new ArrayList<>();
+        for (int i = 0; i < threads; i++) {
+            final Random random = new Random(seed * 31 + i);
+            Thread worker = new Thread(new Runnable() {
+                @Override
+                public void run() {
+                    try {
+                        start.await();
+                    } catch (InterruptedException e) {
+                        return;
+                    }
+                    while (System.nanoTime() < endNanos[0]) {
+                        String id = BenchmarkDataSet.taskId(random.nextInt(hotTasks));
+                        long begin = System.nanoTime();
+                        try {
+                            readModifyWrite(lockMode, id);
+                            result.latency.record(System.nanoTime() - begin);
+                        } catch (PessimisticLockingFailureException e) {
+                            result.lockFailures.incrementAndGet();
+                        } catch (OptimisticLockingFailureException e) {
+                            result.versionConflicts.incrementAndGet();
+                        } catch (RuntimeException e) {
+                            result.errors.incrementAndGet();
+                        }
+                    }
+                }
+            }, "lock-simulator-" + i);
+            workers.add(worker);
+            worker.start();
+        }
+        long beginNanos = System.nanoTime();
+        endNanos[0] = beginNanos + durationNanos;
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join();
+        }
+        result.elapsedNanos = System.nanoTime() - beginNanos;
+        return result;
+    }
+
+    private void readModifyWrite(final LockModeType lockMode, final String id) {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                if (lockTimeoutMillis >= 0) {
+                    jdbcTemplate.execute("SET LOCK_TIMEOUT " + lockTimeoutMillis);
+                }
+                Task task = find(lockMode, id);
+                if (thinkTimeMillis > 0) {
+                    try {
+                        Thread.sleep(thinkTimeMillis);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+                task.setDescription("updated by " + Thread.currentThread().getName());
+            }
+        });
+    }
+
+    private Task find(LockModeType lockMode, String id) {
+        switch (lockMode) {
+            case NONE:
+                return taskRepository.findOne(id);
+            case PESSIMISTIC_WRITE:
+                return taskRepository.findOneWithinPessimisticWriteLockById(id);
+            case PESSIMISTIC_READ:
+                return taskRepository.findOneWithinPessimisticReadLockById(id);
+            case PESSIMISTIC_FORCE_INCREMENT:
+                return taskRepository.findOneWithinPessimisticForceIncrementLockById(id);
+            case OPTIMISTIC:
+            case READ:
+                return taskRepository.findOneWithinOptimisticLockById(id);
+            case OPTIMISTIC_FORCE_INCREMENT:
+            case WRITE:
+                return taskRepository.findOneWithinOptimisticForceIncrementLockById(id);
+            default:
+                throw new IllegalArgumentException("Unsupported lock mode: " + lockMode);
+        }
+    }
+
+    private static class Result {
+        private final LockModeType lockMode;
+        private final LatencyHistogram latency = new LatencyHistogram();
+        private final AtomicLong lockFailures = new AtomicLong();
+        private final AtomicLong versionConflicts = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private long elapsedNanos;
+
+        private Result(LockModeType lockMode) {
+            this.lockMode = lockMode;
+        }
+
+        @Override
+        public String toString() {
+            long succeeded = latency.getCount();
+            long attempts = succeeded + lockFailures.get() + versionConflicts.get() + errors.get();
+            double seconds = elapsedNanos / 1e9;
+            return String.format("lockMode:%s\tthroughput:%.1f/s\tattempts:%d\tlockFailureRate:%.2f%%\tversionConflictRate:%.2f%%\terrors:%d\t%s",
+                    lockMode, succeeded / seconds, attempts,
+                    rate(lockFailures.get(), attempts), rate(versionConflicts.get(), attempts), errors.get(),
+                    latency.summary());
+        }
+
+        private static double rate(long count, long attempts) {
+            return attempts == 0 ? 0.0 : count * 100.0 / attempts;
+        }
+    }
+
+}
@@ -0,0 +1,171 @@
+package com.example.benchmark.logging;
+
+import ch.qos.logback.classic.AsyncAppender;
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.encoder.PatternLayoutEncoder;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.Appender;
+import ch.qos.logback.core.FileAppender;
+import com.example.infra.logging.NonBlockingAsyncAppender;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares logging throughput of request threads with a synchronous file appender, logback's {@link AsyncAppender}
+ * and {@link NonBlockingAsyncAppender}, using 200 concurrent threads as in a saturated servlet container.
+ * <p/>
+ * Each operation logs one debug event (as {@code com.example} does per repository call) and, every 100 operations,
+ * one warn event, which must not be dropped.
+ * <p/>
+ * For {@code NON_BLOCKING}, the appended, dropped and blocked events of each iteration are reported as secondary
+ * results.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(200)
+@State(Scope.Benchmark)
+public class AsyncAppenderBenchmark {
+
+    @Param({"SYNC", "LOGBACK_ASYNC", "NON_BLOCKING"})
+    public String pipeline;
+
+    LoggerContext loggerContext;
+
+    Logger logger;
+
+    Appender<ILoggingEvent> appender;
+
+    long reportedAppendedCount;
+
+    long reportedDroppedCount;
+
+    long reportedBlockedCount;
+
+    @Setup(org.openjdk.jmh.annotations.Level.Trial)
+    public void setupLogger() {
+        loggerContext = new LoggerContext();
+
+        PatternLayoutEncoder encoder = new PatternLayoutEncoder();
+        encoder.setContext(loggerContext);
+        encoder.setPattern("date:%d{yyyy-MM-dd HH:mm:ss}\tthread:%thread\tX-Track:%X{X-Track}\tlevel:%-5level\tlogger:%-48logger{48}\tmessage:%msg%n");
+        encoder.start();
+
+        FileAppender<ILoggingEvent> fileAppender = new FileAppender<>();
+        fileAppender.setContext(loggerContext);
+        fileAppender.setName("FILE");
+        fileAppender.setFile("target/benchmark-logs/async-appender-" + pipeline + ".log");
+        fileAppender.setAppend(false);
+        fileAppender.setEncoder(encoder);
+        fileAppender.start();
+
+        switch (pipeline) {
+            case "SYNC":
+                appender = fileAppender;
+                break;
+            case "LOGBACK_ASYNC":
+                AsyncAppender asyncAppender = new AsyncAppender();
+                asyncAppender.setContext(loggerContext);
+                asyncAppender.setName("LOGBACK_ASYNC");
+                asyncAppender.setQueueSize(8192);
+                asyncAppender.addAppender(fileAppender);
+                asyncAppender.start();
+                appender = asyncAppender;
+                break;
+            case "NON_BLOCKING":
+                NonBlockingAsyncAppender nonBlockingAsyncAppender = new NonBlockingAsyncAppender();
+                nonBlockingAsyncAppender.setContext(loggerContext);
+                nonBlockingAsyncAppender.setName("NON_BLOCKING");
+                nonBlockingAsyncAppender.setQueueCapacity(8192);
+                nonBlockingAsyncAppender.addAppender(fileAppender);
+                nonBlockingAsyncAppender.start();
+                appender = nonBlockingAsyncAppender;
+                break;
+            default:
+                throw new IllegalArgumentException("Unknown pipeline: " + pipeline);
+        }
+
+        logger = loggerContext.getLogger("com.example.benchmark");
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+        logger.addAppender(appender);
+    }
+
+    @TearDown(org.openjdk.jmh.annotations.Level.Trial)
+    public void tearDownLogger() {
+        loggerContext.stop();
+    }
+
+    @State(Scope.Thread)
+    public static class RequestState {
+        long count;
+    }
+
+    /**
+     * Appender events per iteration, reported as secondary results.
+     * <p/>
+     * The appender counts events of all threads, so each thread takes the part not yet taken by another thread and
+     * the sum over the threads is the count of the iteration.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class AppenderEvents {
+        public long appended;
+        public long dropped;
+        public long blocked;
+
+        @Setup(org.openjdk.jmh.annotations.Level.Iteration)
+        public void reset() {
+            appended = 0;
+            dropped = 0;
+            blocked = 0;
+        }
+
+        @TearDown(org.openjdk.jmh.annotations.Level.Iteration)
+        public void takeCounts(AsyncAppenderBenchmark benchmark) {
+            if (!(benchmark.appender instanceof NonBlockingAsyncAppender)) {
+                return;
+            }
+            NonBlockingAsyncAppender nonBlockingAsyncAppender = (NonBlockingAsyncAppender) benchmark.appender;
+            synchronized (benchmark) {
+                long appendedCount = nonBlockingAsyncAppender.getAppendedCount();
+                long droppedCount = nonBlockingAsyncAppender.getDroppedCount();
+                long blockedCount = nonBlockingAsyncAppender.getBlockedCount();
+                appended = appendedCount - benchmark.reportedAppendedCount;
+                dropped = droppedCount - benchmark.reportedDroppedCount;
+                blocked = blockedCount - benchmark.reportedBlockedCount;
+                benchmark.reportedAppendedCount = appendedCount;
+                benchmark.reportedDroppedCount = droppedCount;
+                benchmark.reportedBlockedCount = blockedCount;
+            }
+        }
+    }
+
+    @Benchmark
+    public void log(RequestState state, AppenderEvents appenderEvents) {
+        long count = state.count++;
+        logger.debug("Task found. id:{} count:{}", "00000000-0000-0000-0000-000000000001", count);
+        if (count % 100 == 0) {
+            logger.warn("Slow request. count:{}", count);
+        }
+    }
+
+}
@@ -0,0 +1,196 @@
+package com.example.benchmark.pagination;
+
+import com.example.benchmark.data.SyntheticDataGenerator;
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.domain.repository.task.TaskScrollCallback;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.init.DatabasePopulatorUtils;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+
+import javax.sql.DataSource;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the cost of reading one page at increasing depths with the paging strategies of {@link TaskRepository}.
+ * <ul>
+ * <li>{@code OFFSET}: {@code Page<Task>} with {@code LIMIT/OFFSET} and a count query</li>
+ * <li>{@code SLICE}: {@code List<Task>} with {@code LIMIT/OFFSET} and no count query</li>
+ * <li>{@code KEYSET}: seek on {@code (created_at, id)} from the last row of the previous page</li>
+ * <li>{@code STREAM}: a forward-only cursor read up to the page</li>
+ * </ul>
+ * The benchmark runs against a file based H2 database ({@code benchmark.database.url}, default
+ * {@code target/synthetic-data}) filled with {@code taskCount} tasks by {@link SyntheticDataGenerator}.
+ * The database is generated only when its task count differs, so the first run takes a while.
+ * Besides latency per page, the {@code rowsFetched} and {@code rowsScanned} counters are reported.
+ * {@code rowsScanned} is an estimate of the index entries walked by the database: the skipped and fetched rows
+ * (plus the counted rows for {@code OFFSET}) for offset based strategies, and the fetched rows for {@code KEYSET}.
+ * Heap allocation is reported by the {@code gc} profiler of the {@code benchmark} profile.
+ * e.g. {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=PaginationBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2g")
+@State(Scope.Benchmark)
+public class PaginationBenchmark {
+
+    private static final String DEFAULT_DATABASE_URL = "jdbc:h2:./target/synthetic-data/jpa-examples;MVCC=TRUE";
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final int STREAM_FETCH_SIZE = 1000;
+
+    public enum Strategy {
+        OFFSET, SLICE, KEYSET, STREAM
+    }
+
+    @Param({"OFFSET", "SLICE", "KEYSET", "STREAM"})
+    Strategy strategy;
+
+    @Param({"1", "100", "1000", "10000", "100000"})
+    int pageDepth;
+
+    @Param({"10000000"})
+    long taskCount;
+
+    ClassPathXmlApplicationContext context;
+
+    TaskRepository taskRepository;
+
+    long unfinishedCount;
+
+    Date keysetCreatedAt;
+
+    String keysetId;
+
+    /**
+     * Rows per operation, reported as secondary results.
+     */
+    @AuxCounters(AuxCounters.Type.EVENTS)
+    @State(Scope.Thread)
+    public static class Rows {
+        public long rowsFetched;
+        public long rowsScanned;
+    }
+
+    @Setup(Level.Trial)
+    public void openContext() throws Exception {
+        String url = System.getProperty("benchmark.database.url", DEFAULT_DATABASE_URL);
+        System.setProperty("H2.database.url", url);
+        System.setProperty("warmup.enabled", "false");
+        context = new ClassPathXmlApplicationContext("META-INF/spring/applicationContext.xml");
+        taskRepository = context.getBean(TaskRepository.class);
+
+        DataSource dataSource = context.getBean("realDataSource", DataSource.class);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        if (countTasks(jdbcTemplate) != taskCount) {
+            ResourceDatabasePopulator populator = new ResourceDatabasePopulator();
+            populator.addScript(new ClassPathResource("database/H2-schema.sql"));
+            DatabasePopulatorUtils.execute(populator, dataSource);
+            SyntheticDataGenerator generator = new SyntheticDataGenerator();
+            generator.setTasks(taskCount);
+            generator.setMembers(0);
+            generator.generate(dataSource);
+        }
+
+        unfinishedCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task WHERE finished = FALSE", Long.class);
+        long offset = (long) (pageDepth - 1) * PAGE_SIZE;
+        if (offset >= unfinishedCount) {
+            throw new IllegalStateException("Page " + pageDepth + " is beyond " + unfinishedCount + " unfinished tasks.");
+        }
+        if (offset > 0) {
+            Map<String, Object> lastOfPreviousPage = jdbcTemplate.queryForMap(
+                    "SELECT created_at, id FROM task WHERE finished = FALSE ORDER BY created_at, id LIMIT 1 OFFSET ?",
+                    offset - 1);
+            keysetCreatedAt = (Date) lastOfPreviousPage.get("CREATED_AT");
+            keysetId = (String) lastOfPreviousPage.get("ID");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        context.close();
+    }
+
+    @Benchmark
+    public void readPage(Rows rows, final Blackhole blackhole) {
+        final long offset = (long) (pageDepth - 1) * PAGE_SIZE;
+        PageRequest pageRequest = new PageRequest(pageDepth - 1, PAGE_SIZE);
+        switch (strategy) {
+            case OFFSET: {
+                Page<Task> page = taskRepository.findPageByFinishedOrderByCreatedAtAscIdAsc(false, pageRequest);
+                blackhole.consume(page);
+                rows.rowsFetched += page.getNumberOfElements();
+                rows.rowsScanned += offset + page.getNumberOfElements() + unfinishedCount;
+                break;
+            }
+            case SLICE: {
+                List<Task> tasks = taskRepository.findSliceByFinishedOrderByCreatedAtAscIdAsc(false, pageRequest);
+                blackhole.consume(tasks);
+                rows.rowsFetched += tasks.size();
+                rows.rowsScanned += offset + tasks.size();
+                break;
+            }
+            case KEYSET: {
+                List<Task> tasks = keysetId == null
+                        ? taskRepository.findSliceByFinishedOrderByCreatedAtAscIdAsc(false, new PageRequest(0, PAGE_SIZE))
+                        : taskRepository.findNextByFinished(false, keysetCreatedAt, keysetId, new PageRequest(0, PAGE_SIZE));
+                blackhole.consume(tasks);
+                rows.rowsFetched += tasks.size();
+                rows.rowsScanned += tasks.size();
+                break;
+            }
+            case STREAM: {
+                long read = taskRepository.scrollByFinished(false, STREAM_FETCH_SIZE, new TaskScrollCallback() {
+                    long position;
+
+                    @Override
+                    public boolean handle(Task task) {
+                        if (position++ >= offset) {
+                            blackhole.consume(task);
+                        }
+                        return position < offset + PAGE_SIZE;
+                    }
+                });
+                rows.rowsFetched += read;
+                rows.rowsScanned += read;
+                break;
+            }
+            default:
+                throw new IllegalStateException("Unknown strategy: " + strategy);
+        }
+    }
+
+    private static long countTasks(JdbcTemplate jdbcTemplate) {
+        try {
+            return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task", Long.class);
+        } catch (RuntimeException e) {
+            return -1;
+        }
+    }
+
+}
@@ -0,0 +1,107 @@
+package com.example.benchmark.repository;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+
+/**
+ * Boots {@code benchmark-context.xml} and manages the rows used by repository benchmarks.
+ * <p/>
+ * Benchmark tasks have ids starting with {@code 10000000-}, so they are distinguishable from the test data
+ * ({@code 00000000-}) and from rows created by the benchmarks (random UUIDs).
+ * The pool does not auto-commit, so rows are changed within transactions of {@code dataSourceTransactionManager}.
+ */
+public class BenchmarkDataSet {
+
+    public static final int TASK_COUNT = 1000;
+
+    private final ClassPathXmlApplicationContext context;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public BenchmarkDataSet() {
+        this.context = new ClassPathXmlApplicationContext("benchmark-context.xml");
+        this.jdbcTemplate = context.getBean("jdbcTemplate", JdbcTemplate.class);
+        this.transactionTemplate = new TransactionTemplate(
+                context.getBean("dataSourceTransactionManager", PlatformTransactionManager.class));
+    }
+
+    public <T> T getBean(Class<T> requiredType) {
+        return context.getBean(requiredType);
+    }
+
+    public <T> T getBean(String name, Class<T> requiredType) {
+        return context.getBean(name, requiredType);
+    }
+
+    public void close() {
+        context.close();
+    }
+
+    public static String taskId(int index) {
+        return String.format("10000000-0000-0000-0000-%012d", index % TASK_COUNT);
+    }
+
+    /**
+     * Deletes all tasks except the test data and inserts {@link #TASK_COUNT} tasks. Every other task is finished.
+     */
+    public void resetTasks() {
+        final long now = System.currentTimeMillis();
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                jdbcTemplate.update("DELETE FROM task WHERE id NOT LIKE '00000000-%'");
+                jdbcTemplate.batchUpdate("INSERT INTO task (id, title, description, deadline_date, finished, finished_at, created_at, version)"
+                        + " VALUES (?, ?, ?, NULL, ?, ?, ?, 0)", new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        boolean finished = i % 2 == 1;
+                        ps.setString(1, taskId(i));
+                        ps.setString(2, "title " + i);
+                        ps.setString(3, "description " + i);
+                        ps.setBoolean(4, finished);
+                        ps.setTimestamp(5, finished ? new Timestamp(now - 60000L) : null);
+                        ps.setTimestamp(6, new Timestamp(now - (TASK_COUNT - i) * 1000L));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return TASK_COUNT;
+                    }
+                });
+            }
+        });
+    }
+
+    /**
+     * Marks all benchmark tasks as unfinished.
+     */
+    public void unfinishTasks() {
+        update("UPDATE task SET finished = FALSE, finished_at = NULL WHERE id LIKE '10000000-%'");
+    }
+
+    /**
+     * Deletes all members.
+     */
+    public void resetMembers() {
+        update("DELETE FROM member");
+    }
+
+    private void update(final String sql) {
+        transactionTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                jdbcTemplate.update(sql);
+            }
+        });
+    }
+
+}
@@ -0,0 +1,71 @@
+package com.example.benchmark.repository;
+
+import com.example.domain.model.Member;
+import com.example.domain.repository.member.MemberRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures {@link MemberRepository} operations through the application wiring against in-memory H2.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class MemberRepositoryBenchmark {
+
+    private final AtomicLong sequence = new AtomicLong();
+
+    BenchmarkDataSet dataSet;
+
+    MemberRepository memberRepository;
+
+    @Setup(Level.Trial)
+    public void openContext() {
+        dataSet = new BenchmarkDataSet();
+        memberRepository = dataSet.getBean(MemberRepository.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetMembers() {
+        dataSet.resetMembers();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        dataSet.close();
+    }
+
+    private Member newMember() {
+        Member member = new Member();
+        member.setLoginId("benchmark" + sequence.incrementAndGet());
+        member.setName("benchmark member");
+        return member;
+    }
+
+    @Benchmark
+    public Member save() {
+        return memberRepository.save(newMember());
+    }
+
+    @Benchmark
+    public Member saveAndFlush() {
+        return memberRepository.saveAndFlush(newMember());
+    }
+
+}
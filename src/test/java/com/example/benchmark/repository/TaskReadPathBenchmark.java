@@ -0,0 +1,132 @@
+package com.example.benchmark.repository;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskColumnBatch;
+import com.example.domain.repository.task.TaskColumnBatchCallback;
+import com.example.domain.repository.task.TaskJdbcReader;
+import com.example.domain.repository.task.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the JPA finders of {@link TaskRepository} with the same queries of {@link TaskJdbcReader}
+ * against in-memory H2 with {@link BenchmarkDataSet#TASK_COUNT} tasks.
+ * <ul>
+ * <li>{@code JPA}: the query method, with Hibernate hydrating managed entities</li>
+ * <li>{@code JDBC}: the same SQL mapped by column index into detached entities</li>
+ * </ul>
+ * {@code countOverdue} computes over three columns of all tasks, from entities with {@code JPA} and from the
+ * column batches of {@link TaskJdbcReader#scanColumns(int, boolean, TaskColumnBatchCallback)} with {@code JDBC}.
+ * Allocation per operation is reported by the {@code gc} profiler of the {@code benchmark} profile.
+ * e.g. {@code mvn -Pbenchmark -DskipTests verify -Dbenchmark.includes=TaskReadPathBenchmark}
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskReadPathBenchmark {
+
+    private static final int PAGE_SIZE = 20;
+
+    private static final PageRequest FIRST_PAGE = new PageRequest(0, PAGE_SIZE);
+
+    private static final int SCAN_BATCH_SIZE = 1000;
+
+    public enum ReadPath {
+        JPA, JDBC
+    }
+
+    @Param({"JPA", "JDBC"})
+    ReadPath readPath;
+
+    BenchmarkDataSet dataSet;
+
+    TaskRepository taskRepository;
+
+    TaskJdbcReader taskJdbcReader;
+
+    @Setup(Level.Trial)
+    public void openContext() {
+        dataSet = new BenchmarkDataSet();
+        dataSet.resetTasks();
+        taskRepository = dataSet.getBean(TaskRepository.class);
+        taskJdbcReader = dataSet.getBean(TaskJdbcReader.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        dataSet.close();
+    }
+
+    /**
+     * Reads the {@code TASK_COUNT / 2} unfinished benchmark tasks.
+     */
+    @Benchmark
+    public List<Task> findAllByFinished() {
+        return readPath == ReadPath.JPA
+                ? taskRepository.findAllByFinished("10000000-", false)
+                : taskJdbcReader.findAllByFinished("10000000-", false);
+    }
+
+    /**
+     * Reads the first page of unfinished tasks.
+     */
+    @Benchmark
+    public List<Task> findFirstPage() {
+        return readPath == ReadPath.JPA
+                ? taskRepository.findSliceByFinishedOrderByCreatedAtAscIdAsc(false, FIRST_PAGE)
+                : taskJdbcReader.findNextByFinished(false, null, null, PAGE_SIZE);
+    }
+
+    /**
+     * Counts the unfinished tasks created more than 10 minutes ago.
+     */
+    @Benchmark
+    public long countOverdue() {
+        final long threshold = System.currentTimeMillis() - TimeUnit.MINUTES.toMillis(10);
+        if (readPath == ReadPath.JPA) {
+            Date thresholdDate = new Date(threshold);
+            long count = 0;
+            for (Task task : taskRepository.findAll()) {
+                if (!task.isFinished() && task.getDeadlineDate() == null && task.getCreatedAt().before(thresholdDate)) {
+                    count++;
+                }
+            }
+            return count;
+        }
+        final long[] count = {0};
+        taskJdbcReader.scanColumns(SCAN_BATCH_SIZE, false, new TaskColumnBatchCallback() {
+            @Override
+            public boolean handle(TaskColumnBatch batch) {
+                long[] createdAts = batch.getCreatedAts();
+                long[] deadlineDates = batch.getDeadlineDates();
+                for (int i = batch.getFinished().nextClearBit(0); i < batch.size(); i = batch.getFinished().nextClearBit(i + 1)) {
+                    if (deadlineDates[i] == TaskColumnBatch.NO_DATE && createdAts[i] < threshold) {
+                        count[0]++;
+                    }
+                }
+                return true;
+            }
+        });
+        return count[0];
+    }
+
+}
@@ -0,0 +1,187 @@
+package com.example.benchmark.repository;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskRepository;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+
+import java.util.Date;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures {@link TaskRepository} operations through the application wiring against in-memory H2
+ * with {@link BenchmarkDataSet#TASK_COUNT} tasks.
+ * <p/>
+ * Each repository call runs in its own transaction, as declared on {@link TaskRepository}.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskRepositoryBenchmark {
+
+    private static final PageRequest FIRST_PAGE = new PageRequest(0, 20);
+    private static final PageRequest FIRST_PAGE_SORTED = new PageRequest(0, 20, new Sort("createdAt"));
+    private static final Sort SORT_BY_CREATED_AT = new Sort("createdAt");
+
+    BenchmarkDataSet dataSet;
+
+    TaskRepository taskRepository;
+
+    @Setup(Level.Trial)
+    public void openContext() {
+        dataSet = new BenchmarkDataSet();
+        taskRepository = dataSet.getBean(TaskRepository.class);
+    }
+
+    @Setup(Level.Iteration)
+    public void resetTasks() {
+        dataSet.resetTasks();
+    }
+
+    @TearDown(Level.Trial)
+    public void closeContext() {
+        dataSet.close();
+    }
+
+    @State(Scope.Thread)
+    public static class TaskIdState {
+        int next;
+
+        String nextId() {
+            return BenchmarkDataSet.taskId(next++);
+        }
+    }
+
+    /**
+     * Restores unfinished tasks before each bulk finish.
+     */
+    @State(Scope.Benchmark)
+    public static class UnfinishedTasksState {
+        @Setup(Level.Invocation)
+        public void unfinishTasks(TaskRepositoryBenchmark benchmark) {
+            benchmark.dataSet.unfinishTasks();
+        }
+    }
+
+    /**
+     * Restores finished tasks before each bulk delete.
+     */
+    @State(Scope.Benchmark)
+    public static class FinishedTasksState {
+        @Setup(Level.Invocation)
+        public void resetTasks(TaskRepositoryBenchmark benchmark) {
+            benchmark.dataSet.resetTasks();
+        }
+    }
+
+    private static Task newTask() {
+        Task task = new Task();
+        task.setTitle("benchmark task");
+        task.setDescription("created by TaskRepositoryBenchmark");
+        task.setCreatedAt(new Date());
+        return task;
+    }
+
+    @Benchmark
+    public Task save() {
+        return taskRepository.save(newTask());
+    }
+
+    @Benchmark
+    public Task saveAndFlush() {
+        return taskRepository.saveAndFlush(newTask());
+    }
+
+    @Benchmark
+    public Task findOne(TaskIdState state) {
+        return taskRepository.findOne(state.nextId());
+    }
+
+    @Benchmark
+    public boolean exists(TaskIdState state) {
+        return taskRepository.exists(state.nextId());
+    }
+
+    @Benchmark
+    public long count() {
+        return taskRepository.count();
+    }
+
+    @Benchmark
+    public List<Task> findAllSorted() {
+        return taskRepository.findAll(SORT_BY_CREATED_AT);
+    }
+
+    @Benchmark
+    public Page<Task> findPageByNamedQuery() {
+        return taskRepository.findPageByFinished(false, FIRST_PAGE);
+    }
+
+    @Benchmark
+    public Page<Task> findPageByQueryMethod() {
+        return taskRepository.findPageByIdStartingWithAndFinished("10000000-", false, FIRST_PAGE_SORTED);
+    }
+
+    @Benchmark
+    public int finishAll(UnfinishedTasksState state) {
+        return taskRepository.finishAll(new Date());
+    }
+
+    @Benchmark
+    public int deleteByFinishedAtBefore(FinishedTasksState state) {
+        return taskRepository.deleteByFinishedAtBefore(new Date());
+    }
+
+    @Benchmark
+    public Task findOneWithinPessimisticWriteLock(TaskIdState state) {
+        return taskRepository.findOneWithinPessimisticWriteLockById(state.nextId());
+    }
+
+    @Benchmark
+    public Task findOneWithinPessimisticReadLock(TaskIdState state) {
+        return taskRepository.findOneWithinPessimisticReadLockById(state.nextId());
+    }
+
+    @Benchmark
+    public Task findOneWithinPessimisticForceIncrementLock(TaskIdState state) {
+        return taskRepository.findOneWithinPessimisticForceIncrementLockById(state.nextId());
+    }
+
+    @Benchmark
+    public Task findOneWithinWriteLock(TaskIdState state) {
+        return taskRepository.findOneWithinWriteLockById(state.nextId());
+    }
+
+    @Benchmark
+    public Task findOneWithinReadLock(TaskIdState state) {
+        return taskRepository.findOneWithinReadLockById(state.nextId());
+    }
+
+    @Benchmark
+    public Task findOneWithinOptimisticLock(TaskIdState state) {
+        return taskRepository.findOneWithinOptimisticLockById(state.nextId());
+    }
+
+    @Benchmark
+    public Task findOneWithinOptimisticForceIncrementLock(TaskIdState state) {
+        return taskRepository.findOneWithinOptimisticForceIncrementLockById(state.nextId());
+    }
+
+}
@@ -0,0 +1,148 @@
+package com.example.benchmark.startup;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Measures cold startup of {@link StartupHarness} in fresh JVMs, with and without the AppCDS archive,
+ * and reports the median, minimum and maximum per mode and the improvement of the median.
+ * <p/>
+ * Modes are run alternately so that drift of the machine affects both equally. The child JVMs use the classpath of
+ * this process, which must be the same as the one of the training run that created the archive
+ * (CDS rejects an archive created with a different classpath). The report is printed and written to {@code report}.
+ * Arguments are given as {@code key=value}: {@code archive} (required), {@code runs} per mode (default 10),
+ * {@code report} (default target/cds/startup-report.txt).
+ * e.g. {@code mvn -Pcds -DskipTests verify -Dcds.runs=20}
+ * <p/>
+ * The {@code appcds} mode runs with {@code -Xshare:on}, so a child JVM that cannot map the archive (e.g. after a
+ * classpath or JDK change) fails instead of silently measuring a boot without CDS.
+ * <p/>
+ * The report has one line per mode, e.g.
+ * {@code mode:appcds	startup(median/min/max):812/790/870	uptime(median/min/max):1405/1380/1490}.
+ * {@code startup} is the context refresh measured by {@link StartupHarness} and {@code uptime} is the JVM uptime when
+ * the contexts are ready, which includes JVM boot and class loading, where CDS saves most. The last line is the
+ * improvement of the median uptime. The numbers above only show the format. No figures have been measured for this
+ * application yet; when they are, record them together with the JDK version ({@code java -version}) and the machine,
+ * as the effect of CDS depends on both.
+ */
+public class StartupComparison {
+
+    public static void main(String[] args) throws Exception {
+        String archive = null;
+        int runs = 10;
+        String report = "target/cds/startup-report.txt";
+        for (String arg : args) {
+            String[] keyValue = arg.split("=", 2);
+            if (keyValue.length != 2) {
+                throw new IllegalArgumentException("Arguments must be key=value: " + arg);
+            }
+            switch (keyValue[0]) {
+                case "archive":
+                    archive = keyValue[1];
+                    break;
+                case "runs":
+                    runs = Integer.parseInt(keyValue[1]);
+                    break;
+                case "report":
+                    report = keyValue[1];
+                    break;
+                default:
+                    throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        if (archive == null || !new File(archive).isFile()) {
+            throw new IllegalArgumentException("CDS archive is not found: " + archive);
+        }
+
+        Map<String, List<String>> modes = new LinkedHashMap<>();
+        modes.put("default", Collections.<String>emptyList());
+        modes.put("appcds", Arrays.asList("-XX:SharedArchiveFile=" + archive, "-Xshare:on"));
+        Map<String, List<Long>> startupMillis = new LinkedHashMap<>();
+        Map<String, List<Long>> uptimeMillis = new LinkedHashMap<>();
+        for (String mode : modes.keySet()) {
+            startupMillis.put(mode, new ArrayList<Long>());
+            uptimeMillis.put(mode, new ArrayList<Long>());
+        }
+        for (int i = 0; i < runs; i++) {
+            for (Map.Entry<String, List<String>> mode : modes.entrySet()) {
+                long[] result = boot(mode.getValue());
+                startupMillis.get(mode.getKey()).add(result[0]);
+                uptimeMillis.get(mode.getKey()).add(result[1]);
+                System.out.printf("run:%d\tmode:%s\tstartup:%dms\tuptime:%dms%n", i + 1, mode.getKey(), result[0], result[1]);
+            }
+        }
+
+        StringBuilder summary = new StringBuilder();
+        summary.append(String.format("java:%s\truns:%d\tarchive:%s%n", System.getProperty("java.version"), runs, archive));
+        for (String mode : modes.keySet()) {
+            summary.append(String.format("mode:%s\tstartup(median/min/max):%s\tuptime(median/min/max):%s%n",
+                    mode, stats(startupMillis.get(mode)), stats(uptimeMillis.get(mode))));
+        }
+        long defaultMedian = median(uptimeMillis.get("default"));
+        long appcdsMedian = median(uptimeMillis.get("appcds"));
+        summary.append(String.format("uptime median improvement:%dms (%.1f%%)%n",
+                defaultMedian - appcdsMedian, 100.0 * (defaultMedian - appcdsMedian) / defaultMedian));
+        System.out.print(summary);
+
+        File reportFile = new File(report);
+        if (reportFile.getParentFile() != null) {
+            reportFile.getParentFile().mkdirs();
+        }
+        try (PrintWriter writer = new PrintWriter(new OutputStreamWriter(new FileOutputStream(reportFile), StandardCharsets.UTF_8))) {
+            writer.print(summary);
+        }
+    }
+
+    private static long[] boot(List<String> jvmOptions) throws IOException, InterruptedException {
+        List<String> command = new ArrayList<>();
+        command.add(new File(System.getProperty("java.home"), "bin/java").getPath());
+        command.addAll(jvmOptions);
+        command.add("-Dlogback.configurationFile=logback-benchmark.xml");
+        command.add("-classpath");
+        command.add(System.getProperty("java.class.path"));
+        command.add(StartupHarness.class.getName());
+        Process process = new ProcessBuilder(command).redirectErrorStream(true).start();
+        String result = null;
+        List<String> output = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                output.add(line);
+                if (line.startsWith(StartupHarness.RESULT_PREFIX)) {
+                    result = line;
+                }
+            }
+        }
+        int exitCode = process.waitFor();
+        if (exitCode != 0 || result == null) {
+            throw new IllegalStateException("Startup harness failed. exitCode=" + exitCode + ", command=" + command + ", output=" + output);
+        }
+        String[] values = result.split(" ");
+        return new long[]{
+                Long.parseLong(values[0].substring(values[0].indexOf('=') + 1)),
+                Long.parseLong(values[1].substring(values[1].indexOf('=') + 1))};
+    }
+
+    private static String stats(List<Long> values) {
+        return median(values) + "/" + Collections.min(values) + "/" + Collections.max(values) + "ms";
+    }
+
+    private static long median(List<Long> values) {
+        List<Long> sorted = new ArrayList<>(values);
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+
+}
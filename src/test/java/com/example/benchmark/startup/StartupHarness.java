@@ -0,0 +1,40 @@
+package com.example.benchmark.startup;
+
+import org.springframework.context.support.ClassPathXmlApplicationContext;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Boots the root application contexts of the web application (as listed in {@code web.xml}) once, prints the
+ * startup time and exits. Used as the training run of the CDS archive and by {@link StartupComparison}.
+ * <p/>
+ * Prints one line: {@code startupMillis=<context refresh> uptimeMillis=<JVM uptime after refresh>}.
+ * The repository warm-up is disabled so that the process exits right after the refresh.
+ * Arguments are given as {@code key=value}: {@code contexts} (comma separated, default applicationContext.xml and
+ * spring-security.xml).
+ */
+public class StartupHarness {
+
+    static final String RESULT_PREFIX = "startupMillis=";
+
+    public static void main(String[] args) {
+        String contexts = "META-INF/spring/applicationContext.xml,META-INF/spring/spring-security.xml";
+        for (String arg : args) {
+            String[] keyValue = arg.split("=", 2);
+            if (keyValue.length == 2 && "contexts".equals(keyValue[0])) {
+                contexts = keyValue[1];
+            } else {
+                throw new IllegalArgumentException("Unknown argument: " + arg);
+            }
+        }
+        System.setProperty("warmup.enabled", "false");
+        long start = System.nanoTime();
+        ClassPathXmlApplicationContext context = new ClassPathXmlApplicationContext(contexts.split(","));
+        long startupMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        long uptimeMillis = ManagementFactory.getRuntimeMXBean().getUptime();
+        context.close();
+        System.out.println(RESULT_PREFIX + startupMillis + " uptimeMillis=" + uptimeMillis);
+    }
+
+}
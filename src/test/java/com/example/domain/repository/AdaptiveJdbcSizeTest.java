@@ -0,0 +1,129 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.domain.repository.task.TaskScrollCallback;
+import com.example.infra.jdbc.AdaptiveBatchSizeController;
+import com.example.infra.jdbc.FetchSizeContext;
+import com.example.infra.jdbc.InstrumentedDataSource;
+import com.example.infra.jdbc.StatementExecutionGuard;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * ページサイズに応じたフェッチサイズの選択と、レイテンシに応じたバッチサイズの調整をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class AdaptiveJdbcSizeTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    InstrumentedDataSource dataSource;
+
+    final List<Integer> fetchSizes = new ArrayList<>();
+
+    final StatementExecutionGuard guard = new StatementExecutionGuard() {
+        @Override
+        public void beforeExecute(String sql) {
+            fetchSizes.add(FetchSizeContext.getCurrentFetchSize());
+        }
+    };
+
+    @Before
+    public void setup() {
+        dataSource.addGuard(guard);
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.removeGuard(guard);
+    }
+
+    /**
+     * Pageableを受け取るクエリはページサイズ+1のフェッチサイズで実行される。
+     */
+    @Test
+    public void fetchSizeOfPage() {
+
+        taskRepository.findSliceByFinishedOrderByCreatedAtAscIdAsc(false, new PageRequest(0, 20));
+        taskRepository.findSliceByFinishedOrderByCreatedAtAscIdAsc(false, new PageRequest(0, 5000));
+        taskRepository.findAllByFinished("00000000-", false);
+
+        assertThat(fetchSizes.size(), is(3));
+        assertThat(fetchSizes.get(0), is(21));
+        assertThat(fetchSizes.get(1), is(1000));
+        assertThat(fetchSizes.get(2), is(0));
+        assertThat(FetchSizeContext.getCurrentFetchSize(), is(0));
+
+    }
+
+    /**
+     * ストリーミングのクエリは指定したフェッチサイズで実行される。
+     */
+    @Test
+    public void fetchSizeOfStream() {
+
+        taskRepository.scrollByFinished(false, 500, new TaskScrollCallback() {
+            @Override
+            public boolean handle(Task task) {
+                return true;
+            }
+        });
+
+        assertThat(fetchSizes.size(), is(1));
+        assertThat(fetchSizes.get(0), is(500));
+        assertThat(FetchSizeContext.getCurrentFetchSize(), is(0));
+
+    }
+
+    /**
+     * 目標レイテンシ内であればバッチサイズを加算で増やし、超えた場合は半分にする。
+     */
+    @Test
+    public void adjustBatchSize() {
+
+        AdaptiveBatchSizeController controller = new AdaptiveBatchSizeController();
+        controller.setInitialBatchSize(100);
+        controller.setIncrement(50);
+        controller.setMinBatchSize(10);
+        controller.setMaxBatchSize(200);
+        controller.setTargetLatencyMillis(50);
+
+        controller.record(100, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(controller.getBatchSize(), is(150));
+
+        // a partial batch does not grow the batch size
+        controller.record(20, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(controller.getBatchSize(), is(150));
+
+        controller.record(150, TimeUnit.MILLISECONDS.toNanos(10));
+        controller.record(200, TimeUnit.MILLISECONDS.toNanos(10));
+        assertThat(controller.getBatchSize(), is(200));
+
+        controller.record(200, TimeUnit.MILLISECONDS.toNanos(80));
+        assertThat(controller.getBatchSize(), is(100));
+
+        for (int i = 0; i < 10; i++) {
+            controller.record(controller.getBatchSize(), TimeUnit.MILLISECONDS.toNanos(80));
+        }
+        assertThat(controller.getBatchSize(), is(10));
+
+    }
+
+}
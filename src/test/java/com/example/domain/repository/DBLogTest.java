@@ -0,0 +1,79 @@
+package com.example.domain.repository;
+
+import com.example.domain.repository.helper.DBLog;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * ログの検索(DBLog)をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class DBLogTest {
+
+    private static final Logger logger = LoggerFactory.getLogger(DBLogTest.class);
+
+    @Inject
+    DBLog dbLog;
+
+    @Before
+    public void setup() {
+        dbLog.delete();
+    }
+
+    /**
+     * ワイルドカードとエスケープした記号を含むパターンで検索できる。
+     */
+    @Test
+    public void countByWildcardPattern() {
+
+        logger.info("select t.id from task t where t.id='1' {executed in 1 msec}");
+        logger.info("select t.id from member t where t.id='1' {executed in 1 msec}");
+
+        assertThat(dbLog.countByMessagePattern("select .* from task .* where .*\\.id='.*' \\{executed in .* msec\\}"), is(1));
+        assertThat(dbLog.countByMessagePattern("select .* from .* where t.id='1'"), is(2));
+
+    }
+
+    /**
+     * 16進数、8進数、Unicodeのエスケープを含むパターンで検索できる。
+     */
+    @Test
+    public void countByEscapedCharacterPattern() {
+
+        logger.info("dblog-test hex=A octal=B unicode=C");
+
+        assertThat(dbLog.countByMessagePattern("hex=\\x41"), is(1));
+        assertThat(dbLog.countByMessagePattern("octal=\\0102"), is(1));
+        assertThat(dbLog.countByMessagePattern("unicode=\\u0043"), is(1));
+        assertThat(dbLog.countByMessagePattern("dblog-test hex=\\x41 octal=\\0102 unicode=\\u0043"), is(1));
+        assertThat(dbLog.countByMessagePattern("hex=\\x42"), is(0));
+
+    }
+
+    /**
+     * 後方参照、文字クラス、量指定子を含むパターンで検索できる。
+     */
+    @Test
+    public void countByBackreferenceAndQuantifierPattern() {
+
+        logger.info("dblog-test pair=xy-xy id=42");
+
+        assertThat(dbLog.countByMessagePattern("pair=(xy)-\\1"), is(1));
+        assertThat(dbLog.countByMessagePattern("pair=(xy)-\\1 id=\\d+"), is(1));
+        assertThat(dbLog.countByMessagePattern("pair=xyz?-xy"), is(1));
+        assertThat(dbLog.countByMessagePattern("pair=(xy)-\\1 id=43"), is(0));
+
+    }
+
+}
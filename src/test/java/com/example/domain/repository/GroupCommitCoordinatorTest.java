@@ -0,0 +1,218 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.Member;
+import com.example.domain.repository.helper.MemberEntityHelper;
+import com.example.domain.repository.member.MemberRepository;
+import com.example.infra.jpa.GroupCommitCoordinator;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.context.ApplicationContext;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.orm.jpa.JpaVendorAdapter;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.hamcrest.CoreMatchers.instanceOf;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * グループコミットをテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class GroupCommitCoordinatorTest {
+
+    @Inject
+    GroupCommitCoordinator groupCommitCoordinator;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    MemberEntityHelper memberEntityHelper;
+
+    @Inject
+    @Named("transactionManager")
+    PlatformTransactionManager transactionManager;
+
+    @Inject
+    JpaVendorAdapter jpaVendorAdapter;
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    @Before
+    public void setup() {
+        memberEntityHelper.deleteCreatedRecordsOnTesting();
+    }
+
+    /**
+     * トランザクション外から呼び出した場合、コミットされる。
+     */
+    @Test
+    public void saveAndFlush() {
+
+        Member member = new Member();
+        member.setLoginId("test@com.example");
+        member.setName("John");
+
+        Member savedMember = groupCommitCoordinator.saveAndFlush(member);
+
+        assertThat(savedMember.getId(), is(notNullValue()));
+        assertThat(memberEntityHelper.countAll(Integer.class), is(1));
+
+    }
+
+    /**
+     * 同時に呼び出された場合、複数の呼び出し元の登録が1回のコミットにまとめられる。
+     */
+    @Test
+    public void shareCommitsAmongConcurrentCallers() throws Exception {
+
+        // setup
+        final AtomicInteger commitCount = new AtomicInteger();
+        PlatformTransactionManager countingTransactionManager = new PlatformTransactionManager() {
+            @Override
+            public TransactionStatus getTransaction(TransactionDefinition definition) {
+                return transactionManager.getTransaction(definition);
+            }
+
+            @Override
+            public void commit(TransactionStatus status) {
+                commitCount.incrementAndGet();
+                transactionManager.commit(status);
+            }
+
+            @Override
+            public void rollback(TransactionStatus status) {
+                transactionManager.rollback(status);
+            }
+        };
+        final GroupCommitCoordinator coordinator =
+                new GroupCommitCoordinator(countingTransactionManager, jpaVendorAdapter.getJpaDialect());
+        coordinator.setWindowMillis(50);
+        applicationContext.getAutowireCapableBeanFactory().autowireBean(coordinator);
+
+        final int callerCount = 16;
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(callerCount);
+        List<Future<Member>> futures = new ArrayList<>();
+        for (int i = 0; i < callerCount; i++) {
+            final Member member = new Member();
+            member.setLoginId("test" + i + "@com.example");
+            member.setName("Ken " + i);
+            futures.add(executorService.submit(new Callable<Member>() {
+                @Override
+                public Member call() throws Exception {
+                    startSignal.await();
+                    return coordinator.saveAndFlush(member);
+                }
+            }));
+        }
+
+        // test
+        startSignal.countDown();
+
+        // assert
+        for (Future<Member> future : futures) {
+            assertThat(future.get().getId(), is(notNullValue()));
+        }
+        executorService.shutdown();
+        assertThat(memberEntityHelper.countAll(Integer.class), is(callerCount));
+        assertThat(commitCount.get() < callerCount, is(true));
+
+    }
+
+    /**
+     * 同時に呼び出された場合、一意制約に違反した呼び出し元にのみエラーが通知される。
+     */
+    @Test
+    public void reportConstraintErrorToOwnerOnly() throws InterruptedException {
+
+        // setup
+        Member existingMember = new Member();
+        existingMember.setLoginId("test@com.example");
+        existingMember.setName("John");
+        memberRepository.save(existingMember);
+
+        final CountDownLatch startSignal = new CountDownLatch(1);
+        ExecutorService executorService = Executors.newFixedThreadPool(8);
+        List<Future<Member>> futures = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            final Member member = new Member();
+            member.setLoginId(i == 3 ? "test@com.example" : "test" + i + "@com.example");
+            member.setName("Ken " + i);
+            futures.add(executorService.submit(new Callable<Member>() {
+                @Override
+                public Member call() throws Exception {
+                    startSignal.await();
+                    return groupCommitCoordinator.saveAndFlush(member);
+                }
+            }));
+        }
+
+        // test
+        startSignal.countDown();
+
+        // assert
+        int failureCount = 0;
+        for (Future<Member> future : futures) {
+            try {
+                assertThat(future.get().getId(), is(notNullValue()));
+            } catch (ExecutionException e) {
+                assertThat(e.getCause(), instanceOf(DataIntegrityViolationException.class));
+                failureCount++;
+            }
+        }
+        executorService.shutdown();
+        assertThat(failureCount, is(1));
+        assertThat(memberEntityHelper.countAll(Integer.class), is(8));
+
+    }
+
+    /**
+     * 既存トランザクション内から呼び出した場合、そのトランザクション内で一意制約違反を検知する。
+     */
+    @Transactional
+    @Test
+    public void detectConstraintErrorOnSameTransaction() {
+
+        Member member1 = new Member();
+        member1.setLoginId("test@com.example");
+        member1.setName("John");
+        memberRepository.save(member1);
+
+        Member member2 = new Member();
+        member2.setLoginId("test@com.example");
+        member2.setName("Ken");
+
+        try {
+            groupCommitCoordinator.saveAndFlush(member2);
+            fail();
+        } catch (DataIntegrityViolationException e) {
+            // NOP
+        }
+
+    }
+
+}
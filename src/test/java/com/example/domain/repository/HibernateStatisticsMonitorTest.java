@@ -0,0 +1,60 @@
+package com.example.domain.repository;
+
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.jpa.HibernateStatisticsMonitor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Hibernateの統計情報の公開をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class HibernateStatisticsMonitorTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    HibernateStatisticsMonitor hibernateStatisticsMonitor;
+
+    @Before
+    public void setup() {
+        hibernateStatisticsMonitor.clear();
+        hibernateStatisticsMonitor.setStatisticsEnabled(true);
+    }
+
+    @After
+    public void tearDown() {
+        hibernateStatisticsMonitor.setStatisticsEnabled(false);
+    }
+
+    /**
+     * TaskRepositoryのJPQLの実行統計を取得する。
+     */
+    @Test
+    public void queryStatistics() {
+
+        taskRepository.findAllByFinished("00000000-", false);
+        taskRepository.findAllByFinished("00000000-", true);
+
+        List<Map<String, Object>> queries = hibernateStatisticsMonitor.getQueryStatistics();
+        assertThat(queries.size(), is(1));
+        assertThat(((String) queries.get(0).get("query")).startsWith("SELECT t FROM Task t WHERE t.id LIKE :idPrefix"), is(true));
+        assertThat(queries.get(0).get("executionCount"), is((Object) 2L));
+        assertThat(queries.get(0).get("executionRowCount"), is((Object) 4L));
+
+    }
+
+}
@@ -0,0 +1,185 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.Member;
+import com.example.domain.model.Task;
+import com.example.domain.repository.helper.MemberEntityHelper;
+import com.example.domain.repository.helper.TaskEntityHelper;
+import com.example.domain.repository.member.MemberJdbcReader;
+import com.example.domain.repository.member.MemberRepository;
+import com.example.domain.repository.task.TaskColumnBatch;
+import com.example.domain.repository.task.TaskColumnBatchCallback;
+import com.example.domain.repository.task.TaskJdbcReader;
+import com.example.domain.repository.task.TaskRepository;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * Hibernateを経由しないJDBCの読み込みをテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class JdbcReaderTest {
+
+    @Inject
+    TaskJdbcReader taskJdbcReader;
+
+    @Inject
+    MemberJdbcReader memberJdbcReader;
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    TaskEntityHelper taskEntityHelper;
+
+    @Inject
+    MemberEntityHelper memberEntityHelper;
+
+    @Before
+    public void setup() {
+        taskEntityHelper.deleteCreatedRecordsOnTesting();
+        memberEntityHelper.deleteCreatedRecordsOnTesting();
+    }
+
+    /**
+     * JPAのクエリメソッドと同じ内容のエンティティが取得できる。
+     */
+    @Test
+    public void findAllTasksSameAsRepository() {
+
+        List<Task> expectedTasks = taskRepository.findAllByFinished("00000000-", true);
+        List<Task> tasks = taskJdbcReader.findAllByFinished("00000000-", true);
+
+        assertThat(tasks.size(), is(2));
+        for (int i = 0; i < tasks.size(); i++) {
+            Task expected = expectedTasks.get(i);
+            Task actual = tasks.get(i);
+            assertThat(actual.getId(), is(expected.getId()));
+            assertThat(actual.getTitle(), is(expected.getTitle()));
+            assertThat(actual.getDescription(), is(expected.getDescription()));
+            assertThat(actual.getDeadlineDate(), is(expected.getDeadlineDate()));
+            assertThat(actual.isFinished(), is(expected.isFinished()));
+            assertThat(actual.getFinishedAt().getTime(), is(expected.getFinishedAt().getTime()));
+            assertThat(actual.getCreatedAt().getTime(), is(expected.getCreatedAt().getTime()));
+            assertThat(actual.getVersion(), is(expected.getVersion()));
+        }
+
+    }
+
+    /**
+     * キーセットで次のページを取得する。
+     */
+    @Test
+    public void findNextTasksUsingKeyset() {
+
+        List<Task> firstPage = taskJdbcReader.findNextByFinished(false, null, null, 1);
+        assertThat(firstPage.size(), is(1));
+        Task last = firstPage.get(0);
+        assertThat(last.getId(), is("00000000-0000-0000-0000-000000000001"));
+
+        List<Task> nextPage = taskJdbcReader.findNextByFinished(false, last.getCreatedAt(), last.getId(), 1);
+        assertThat(nextPage.size(), is(1));
+        assertThat(nextPage.get(0).getId(), is("00000000-0000-0000-0000-000000000002"));
+
+        last = nextPage.get(0);
+        nextPage = taskJdbcReader.findNextByFinished(false, last.getCreatedAt(), last.getId(), 1);
+        assertThat(nextPage.size(), is(0));
+
+    }
+
+    /**
+     * 列を配列のチャンクとして読み込む。
+     */
+    @Test
+    public void scanColumns() {
+
+        final List<Integer> batchSizes = new ArrayList<>();
+        final List<String> finishedIds = new ArrayList<>();
+        final long[] minCreatedAt = {Long.MAX_VALUE};
+        final int[] deadlineCount = {0};
+        long count = taskJdbcReader.scanColumns(3, true, new TaskColumnBatchCallback() {
+            @Override
+            public boolean handle(TaskColumnBatch batch) {
+                batchSizes.add(batch.size());
+                for (int i = 0; i < batch.size(); i++) {
+                    if (batch.getFinished().get(i)) {
+                        finishedIds.add(batch.getIds()[i]);
+                    }
+                    if (batch.getDeadlineDates()[i] != TaskColumnBatch.NO_DATE) {
+                        deadlineCount[0]++;
+                    }
+                    minCreatedAt[0] = Math.min(minCreatedAt[0], batch.getCreatedAts()[i]);
+                }
+                return true;
+            }
+        });
+
+        assertThat(count, is(4L));
+        assertThat(batchSizes.toString(), is("[3, 1]"));
+        Collections.sort(finishedIds);
+        assertThat(finishedIds.toString(), is("[00000000-1000-0000-0000-000000000003, 00000000-1000-0000-0000-000000000004]"));
+        assertThat(deadlineCount[0], is(0));
+        assertThat(minCreatedAt[0], is(taskEntityHelper.selectById("00000000-0000-0000-0000-000000000001").getCreatedAt().getTime()));
+
+    }
+
+    /**
+     * コールバックがfalseを返すと読み込みを中断する。
+     */
+    @Test
+    public void stopScanningColumns() {
+
+        long count = taskJdbcReader.scanColumns(2, false, new TaskColumnBatchCallback() {
+            @Override
+            public boolean handle(TaskColumnBatch batch) {
+                assertThat(batch.getIds() == null, is(true));
+                return false;
+            }
+        });
+
+        assertThat(count, is(2L));
+
+    }
+
+    /**
+     * ログインIDの順にメンバーを取得する。
+     */
+    @Test
+    public void findAllMembers() {
+
+        Member member1 = new Member();
+        member1.setLoginId("test2@com.example");
+        member1.setName("John");
+        memberRepository.saveAndFlush(member1);
+
+        Member member2 = new Member();
+        member2.setLoginId("test1@com.example");
+        member2.setName("Ken");
+        memberRepository.saveAndFlush(member2);
+
+        List<Member> members = memberJdbcReader.findAllByIdStartingWith("");
+
+        assertThat(members.size(), is(2));
+        assertThat(members.get(0).getId(), is(member2.getId()));
+        assertThat(members.get(0).getLoginId(), is("test1@com.example"));
+        assertThat(members.get(0).getName(), is("Ken"));
+        assertThat(members.get(0).getVersion(), is(0L));
+        assertThat(members.get(1).getId(), is(member1.getId()));
+
+    }
+
+}
@@ -0,0 +1,285 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.jfr.JfrEvent;
+import com.example.infra.jfr.JfrEventType;
+import com.example.infra.jpa.JfrJpaTransactionManager;
+import org.junit.After;
+import org.junit.Assume;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionCallbackWithoutResult;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.inject.Inject;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.nullValue;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * JFRイベント(トランザクション、リポジトリ呼び出し、悲観ロック取得)の発行をテストする。
+ * <p/>
+ * ソースレベルがJava 7のため、{@code jdk.jfr}のAPIはリフレクションで呼び出す。
+ * JFRが利用できないJVMでは、記録を伴うテストはスキップする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class JfrEventTest {
+
+    private static final String TASK_ID = "00000000-0000-0000-0000-000000000001";
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    JfrJpaTransactionManager transactionManager;
+
+    Object recording;
+
+    @After
+    public void tearDown() throws Exception {
+        if (recording != null) {
+            recording.getClass().getMethod("close").invoke(recording);
+        }
+    }
+
+    /**
+     * トランザクションとリポジトリ呼び出しのイベントが、名前、読み取り専用フラグ、結果、エンティティのIDとともに記録される。
+     */
+    @Test
+    public void recordTransactionAndRepositoryInvocation() throws Exception {
+        startRecording("com.example.Transaction", "com.example.RepositoryInvocation");
+
+        TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setName("jfr-read");
+        transactionTemplate.setReadOnly(true);
+        transactionTemplate.execute(new TransactionCallback<Task>() {
+            @Override
+            public Task doInTransaction(TransactionStatus status) {
+                return taskRepository.findOne(TASK_ID);
+            }
+        });
+
+        List<Map<String, Object>> events = stopRecording();
+
+        Map<String, Object> transactionEvent = findEvent(events, "com.example.Transaction", "name", "jfr-read");
+        assertThat(transactionEvent.get("readOnly"), is((Object) true));
+        assertThat(transactionEvent.get("outcome"), is((Object) "COMMIT"));
+
+        Map<String, Object> invocationEvent = findEvent(events, "com.example.RepositoryInvocation", "method", "TaskRepository.findOne");
+        assertThat(invocationEvent.get("entityId"), is((Object) TASK_ID));
+        assertThat(invocationEvent.get("succeeded"), is((Object) true));
+        assertThat(pendingTransactionEventCount(), is(0));
+    }
+
+    /**
+     * REQUIRES_NEWで中断されたトランザクションと例外で終わったトランザクションが、それぞれ自身の結果で記録される。
+     */
+    @Test
+    public void keepEventsBalancedAcrossRequiresNewAndExceptions() throws Exception {
+        startRecording("com.example.Transaction", "com.example.RepositoryInvocation");
+
+        final TransactionTemplate innerTemplate = new TransactionTemplate(transactionManager);
+        innerTemplate.setName("jfr-inner");
+        innerTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        TransactionTemplate outerTemplate = new TransactionTemplate(transactionManager);
+        outerTemplate.setName("jfr-outer");
+        outerTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                taskRepository.findOne(TASK_ID);
+                try {
+                    innerTemplate.execute(new TransactionCallbackWithoutResult() {
+                        @Override
+                        protected void doInTransactionWithoutResult(TransactionStatus status) {
+                            taskRepository.exists(TASK_ID);
+                            taskRepository.delete("not-found-id");
+                        }
+                    });
+                    fail();
+                } catch (RuntimeException e) {
+                    // NOP
+                }
+                taskRepository.count();
+            }
+        });
+        TransactionTemplate afterTemplate = new TransactionTemplate(transactionManager);
+        afterTemplate.setName("jfr-after");
+        afterTemplate.execute(new TransactionCallbackWithoutResult() {
+            @Override
+            protected void doInTransactionWithoutResult(TransactionStatus status) {
+                taskRepository.findOne(TASK_ID);
+            }
+        });
+
+        List<Map<String, Object>> events = stopRecording();
+
+        assertThat(findEvent(events, "com.example.Transaction", "name", "jfr-inner").get("outcome"), is((Object) "ROLLBACK"));
+        assertThat(findEvent(events, "com.example.Transaction", "name", "jfr-outer").get("outcome"), is((Object) "COMMIT"));
+        assertThat(findEvent(events, "com.example.Transaction", "name", "jfr-after").get("outcome"), is((Object) "COMMIT"));
+        assertThat(findEvent(events, "com.example.RepositoryInvocation", "method", "TaskRepository.delete").get("succeeded"), is((Object) false));
+        assertThat(findEvent(events, "com.example.RepositoryInvocation", "method", "TaskRepository.exists").get("succeeded"), is((Object) true));
+        assertThat(findEvent(events, "com.example.RepositoryInvocation", "method", "TaskRepository.count").get("entityId"), nullValue());
+        assertThat(pendingTransactionEventCount(), is(0));
+    }
+
+    /**
+     * 悲観ロックを取得するメソッドの呼び出しで、ロック取得のイベントがロックモードとともに記録される。
+     */
+    @Test
+    public void recordPessimisticLockAcquisition() throws Exception {
+        startRecording("com.example.PessimisticLockAcquisition");
+
+        new TransactionTemplate(transactionManager).execute(new TransactionCallback<Task>() {
+            @Override
+            public Task doInTransaction(TransactionStatus status) {
+                return taskRepository.findOneWithinPessimisticWriteLockById(TASK_ID);
+            }
+        });
+
+        List<Map<String, Object>> events = stopRecording();
+
+        Map<String, Object> lockEvent = findEvent(events, "com.example.PessimisticLockAcquisition",
+                "method", "TaskRepository.findOneWithinPessimisticWriteLockById");
+        assertThat(lockEvent.get("entityId"), is((Object) TASK_ID));
+        assertThat(lockEvent.get("lockMode"), is((Object) "PESSIMISTIC_WRITE"));
+        assertThat(lockEvent.get("acquired"), is((Object) true));
+    }
+
+    /**
+     * 記録が行われていない場合、イベントは生成されず、トランザクションの処理にも影響しない。
+     */
+    @Test
+    public void doNothingWithoutRecording() {
+        JfrEventType eventType = JfrEventType.create("com.example.test.NotRecorded", "Not Recorded",
+                new String[]{"value"}, new Class<?>[]{String.class});
+
+        assertThat(eventType.isEnabled(), is(false));
+        JfrEvent event = eventType.begin();
+        assertThat(event.isRecording(), is(false));
+        event.set(0, "value").commit();
+
+        Task task = new TransactionTemplate(transactionManager).execute(new TransactionCallback<Task>() {
+            @Override
+            public Task doInTransaction(TransactionStatus status) {
+                return taskRepository.findOne(TASK_ID);
+            }
+        });
+        assertThat(task.getId(), is(TASK_ID));
+        assertThat(pendingTransactionEventCount(), is(0));
+    }
+
+    /**
+     * イベントタイプを定義できない場合(JFRを利用できないJVMなど)、記録中であってもイベントタイプは無効となる。
+     */
+    @Test
+    public void disableEventTypeThatCannotBeDefined() throws Exception {
+        JfrEventType eventType = JfrEventType.create("com.example.test.Undefinable", "Undefinable",
+                new String[]{"value"}, new Class<?>[]{Object.class});
+        if (isJfrAvailable()) {
+            startRecording("com.example.test.Undefinable");
+        }
+
+        assertThat(eventType.isEnabled(), is(false));
+        JfrEvent event = eventType.begin();
+        assertThat(event.isRecording(), is(false));
+        event.set(0, "value").commit();
+    }
+
+    private static boolean isJfrAvailable() {
+        try {
+            Class.forName("jdk.jfr.Recording", true, ClassLoader.getSystemClassLoader());
+            Class.forName("jdk.jfr.consumer.RecordingFile", true, ClassLoader.getSystemClassLoader());
+            return true;
+        } catch (ClassNotFoundException e) {
+            return false;
+        }
+    }
+
+    private void startRecording(String... eventNames) throws Exception {
+        Assume.assumeTrue(isJfrAvailable());
+        Class<?> recordingClass = Class.forName("jdk.jfr.Recording", true, ClassLoader.getSystemClassLoader());
+        recording = recordingClass.newInstance();
+        Method enable = recordingClass.getMethod("enable", String.class);
+        for (String eventName : eventNames) {
+            enable.invoke(recording, eventName);
+        }
+        recordingClass.getMethod("start").invoke(recording);
+    }
+
+    /**
+     * 記録を停止し、記録されたイベントをイベント名("eventType")とフィールド値のマップとして返す。
+     */
+    private List<Map<String, Object>> stopRecording() throws Exception {
+        Class<?> recordingClass = recording.getClass();
+        recordingClass.getMethod("stop").invoke(recording);
+        Path file = Files.createTempFile("jfr-event-test", ".jfr");
+        try {
+            recordingClass.getMethod("dump", Path.class).invoke(recording, file);
+            Class<?> recordingFileClass = Class.forName("jdk.jfr.consumer.RecordingFile", true, ClassLoader.getSystemClassLoader());
+            List<?> recordedEvents = (List<?>) recordingFileClass.getMethod("readAllEvents", Path.class).invoke(null, file);
+            List<Map<String, Object>> events = new ArrayList<>();
+            for (Object recordedEvent : recordedEvents) {
+                Object eventType = recordedEvent.getClass().getMethod("getEventType").invoke(recordedEvent);
+                List<?> fields = (List<?>) eventType.getClass().getMethod("getFields").invoke(eventType);
+                Map<String, Object> event = new LinkedHashMap<>();
+                event.put("eventType", eventType.getClass().getMethod("getName").invoke(eventType));
+                Method getValue = recordedEvent.getClass().getMethod("getValue", String.class);
+                for (Object field : fields) {
+                    String fieldName = (String) field.getClass().getMethod("getName").invoke(field);
+                    event.put(fieldName, getValue.invoke(recordedEvent, fieldName));
+                }
+                events.add(event);
+            }
+            return events;
+        } finally {
+            Files.delete(file);
+        }
+    }
+
+    private static Map<String, Object> findEvent(List<Map<String, Object>> events, String eventType,
+                                                 String fieldName, Object fieldValue) {
+        Map<String, Object> found = null;
+        for (Map<String, Object> event : events) {
+            if (eventType.equals(event.get("eventType")) && fieldValue.equals(event.get(fieldName))) {
+                assertThat("duplicated event: " + event, found, nullValue());
+                found = event;
+            }
+        }
+        if (found == null) {
+            fail("event not found. eventType=" + eventType + " " + fieldName + "=" + fieldValue + " events=" + events);
+        }
+        return found;
+    }
+
+    /**
+     * 現在のスレッドで完了を待っているトランザクションのイベント数を返す。
+     */
+    private static int pendingTransactionEventCount() {
+        try {
+            Field field = JfrJpaTransactionManager.class.getDeclaredField("events");
+            field.setAccessible(true);
+            return ((Deque<?>) ((ThreadLocal<?>) field.get(null)).get()).size();
+        } catch (ReflectiveOperationException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
@@ -0,0 +1,156 @@
+package com.example.domain.repository;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+import com.example.infra.logging.NonBlockingAsyncAppender;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * ノンブロッキングな非同期アペンダー(NonBlockingAsyncAppender)のキューが満杯の場合の動作をテストする。
+ */
+public class NonBlockingAsyncAppenderTest {
+
+    final LoggerContext loggerContext = new LoggerContext();
+    final MBeanServer mBeanServer = ManagementFactory.getPlatformMBeanServer();
+
+    final CountDownLatch firstEventReceived = new CountDownLatch(1);
+    final CountDownLatch release = new CountDownLatch(1);
+    final List<String> deliveredMessages = Collections.synchronizedList(new ArrayList<String>());
+
+    String appenderName;
+    Logger logger;
+
+    @Before
+    public void setup() {
+        appenderName = "test-" + System.nanoTime();
+        logger = loggerContext.getLogger(NonBlockingAsyncAppenderTest.class);
+        logger.setLevel(Level.DEBUG);
+        logger.setAdditive(false);
+    }
+
+    @After
+    public void tearDown() {
+        release.countDown();
+        logger.detachAndStopAllAppenders();
+        loggerContext.stop();
+    }
+
+    /**
+     * キューが満杯の場合、DEBUGとINFOは破棄されて件数が数えられ、WARNとERRORは空きを待って配送される。
+     */
+    @Test
+    public void dropOnlyEventsBelowNeverDropLevel() throws Exception {
+        NonBlockingAsyncAppender appender = startAppender(appenderName);
+        ObjectName objectName = objectNameOf(appenderName);
+
+        logger.info("first");
+        assertThat(firstEventReceived.await(10, TimeUnit.SECONDS), is(true));
+        for (int i = 0; i < appender.getQueueCapacity(); i++) {
+            logger.info("queued-" + i);
+        }
+        assertThat(appender.getQueueDepth(), is(appender.getQueueCapacity()));
+
+        logger.debug("dropped-debug");
+        logger.info("dropped-info");
+        assertThat(appender.getDroppedCount(), is(2L));
+        assertThat(mBeanServer.getAttribute(objectName, "DroppedCount"), is((Object) 2L));
+
+        Thread warnAndErrorLogger = new Thread(new Runnable() {
+            @Override
+            public void run() {
+                logger.warn("delivered-warn");
+                logger.error("delivered-error");
+            }
+        });
+        warnAndErrorLogger.start();
+        while (appender.getBlockedCount() == 0) {
+            Thread.sleep(1);
+        }
+        release.countDown();
+        warnAndErrorLogger.join(TimeUnit.SECONDS.toMillis(10));
+        assertThat(warnAndErrorLogger.isAlive(), is(false));
+        appender.stop();
+
+        List<String> expectedMessages = new ArrayList<>();
+        expectedMessages.add("first");
+        for (int i = 0; i < appender.getQueueCapacity(); i++) {
+            expectedMessages.add("queued-" + i);
+        }
+        expectedMessages.add("delivered-warn");
+        expectedMessages.add("delivered-error");
+        assertThat(deliveredMessages, is(expectedMessages));
+        assertThat(appender.getDroppedCount(), is(2L));
+        assertThat(appender.getBlockedCount() >= 1, is(true));
+        assertThat(mBeanServer.isRegistered(objectName), is(false));
+    }
+
+    /**
+     * 同じ名前のMBeanが登録済みの場合、登録しなかったアペンダーの停止では登録済みのMBeanが解除されない。
+     */
+    @Test
+    public void keepMBeanRegisteredByAnotherAppender() {
+        release.countDown();
+        NonBlockingAsyncAppender registeredAppender = startAppender(appenderName);
+        NonBlockingAsyncAppender duplicatedAppender = startAppender(appenderName);
+        ObjectName objectName = objectNameOf(appenderName);
+        assertThat(mBeanServer.isRegistered(objectName), is(true));
+
+        duplicatedAppender.stop();
+        assertThat(mBeanServer.isRegistered(objectName), is(true));
+
+        registeredAppender.stop();
+        assertThat(mBeanServer.isRegistered(objectName), is(false));
+    }
+
+    private NonBlockingAsyncAppender startAppender(String name) {
+        AppenderBase<ILoggingEvent> blockingAppender = new AppenderBase<ILoggingEvent>() {
+            @Override
+            protected void append(ILoggingEvent event) {
+                deliveredMessages.add(event.getFormattedMessage());
+                firstEventReceived.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+        };
+        blockingAppender.setContext(loggerContext);
+        blockingAppender.start();
+
+        NonBlockingAsyncAppender appender = new NonBlockingAsyncAppender();
+        appender.setContext(loggerContext);
+        appender.setName(name);
+        appender.setQueueCapacity(4);
+        appender.addAppender(blockingAppender);
+        appender.start();
+        logger.addAppender(appender);
+        return appender;
+    }
+
+    private static ObjectName objectNameOf(String appenderName) {
+        try {
+            return new ObjectName("com.example:type=NonBlockingAsyncAppender,name=" + ObjectName.quote(appenderName));
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+}
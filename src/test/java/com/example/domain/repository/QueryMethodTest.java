@@ -4,6 +4,7 @@ import com.example.domain.model.Task;
 import com.example.domain.repository.helper.DBLog;
 import com.example.domain.repository.helper.TaskEntityHelper;
 import com.example.domain.repository.task.TaskRepository;
+import com.example.domain.repository.task.TaskScrollCallback;
 import org.joda.time.DateTime;
 import org.junit.Before;
 import org.junit.Test;
@@ -16,6 +17,8 @@ import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
 
 import javax.inject.Inject;
 import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Date;
 import java.util.List;
 
@@ -348,4 +351,73 @@ public class QueryMethodTest {
         }
     }
 
+    /**
+     * エンティティを読み込まずにバージョンのみを取得する。
+     */
+    @Test
+    public void findVersionUsingQueryAnnotation() {
+        // setup
+        Task newTask = new Task();
+        newTask.setTitle("[Test] findVersionUsingQueryAnnotation");
+        newTask.setCreatedAt(new Date());
+        Task createdTask = taskRepository.save(newTask);
+
+        assertThat(taskRepository.findVersionById(createdTask.getId()), is(0L));
+
+        taskEntityHelper.updateVersionWithinNewTransaction(createdTask.getId());
+        assertThat(taskRepository.findVersionById(createdTask.getId()), is(1L));
+
+        assertThat(taskRepository.findVersionById("foo"), is(nullValue()));
+    }
+
+    /**
+     * 作成日時とIDをキーにしたシーク方式のページングをテストする。
+     */
+    @Test
+    public void findNextUsingKeyset() {
+
+        List<Task> firstPage = taskRepository.findSliceByFinishedOrderByCreatedAtAscIdAsc(false, new PageRequest(0, 1));
+        assertThat(firstPage.size(), is(1));
+        Task last = firstPage.get(0);
+        assertThat(last.getId(), is("00000000-0000-0000-0000-000000000001"));
+
+        List<Task> nextPage = taskRepository.findNextByFinished(false, last.getCreatedAt(), last.getId(), new PageRequest(0, 1));
+        assertThat(nextPage.size(), is(1));
+        assertThat(nextPage.get(0).getId(), is("00000000-0000-0000-0000-000000000002"));
+
+        last = nextPage.get(0);
+        nextPage = taskRepository.findNextByFinished(false, last.getCreatedAt(), last.getId(), new PageRequest(0, 1));
+        assertThat(nextPage.size(), is(0));
+    }
+
+    /**
+     * カーソルによるストリーミング読み込みをテストする。
+     */
+    @Test
+    public void scrollUsingCursor() {
+
+        final List<String> ids = new ArrayList<>();
+        long count = taskRepository.scrollByFinished(true, 1, new TaskScrollCallback() {
+            @Override
+            public boolean handle(Task task) {
+                ids.add(task.getId());
+                return true;
+            }
+        });
+        assertThat(count, is(2L));
+        assertThat(ids, is(Arrays.asList("00000000-1000-0000-0000-000000000003", "00000000-1000-0000-0000-000000000004")));
+
+        // test that stop scrolling
+        ids.clear();
+        count = taskRepository.scrollByFinished(true, 1, new TaskScrollCallback() {
+            @Override
+            public boolean handle(Task task) {
+                ids.add(task.getId());
+                return false;
+            }
+        });
+        assertThat(count, is(1L));
+        assertThat(ids, is(Arrays.asList("00000000-1000-0000-0000-000000000003")));
+    }
+
 }
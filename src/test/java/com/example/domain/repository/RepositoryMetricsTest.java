@@ -0,0 +1,75 @@
+package com.example.domain.repository;
+
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.monitoring.RepositoryMethodMetrics;
+import com.example.infra.monitoring.RepositoryMetricsInterceptor;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * リポジトリメソッド毎のメトリクスの記録をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class RepositoryMetricsTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    RepositoryMetricsInterceptor repositoryMetricsInterceptor;
+
+    @Before
+    public void setup() {
+        repositoryMetricsInterceptor.reset();
+    }
+
+    /**
+     * 呼び出し回数と返却件数が記録される。
+     */
+    @Test
+    public void recordCallsAndRows() {
+
+        taskRepository.findAllByFinished("00000000-", false);
+        taskRepository.findAllByFinished("00000000-", true);
+        taskRepository.findPageByFinished("00000000-", true, new PageRequest(0, 1));
+
+        RepositoryMethodMetrics findAllMetrics = repositoryMetricsInterceptor.getMetrics().get("TaskRepository.findAllByFinished");
+        assertThat(findAllMetrics.getCallCount(), is(2L));
+        assertThat(findAllMetrics.getErrorCount(), is(0L));
+        assertThat(findAllMetrics.getReturnedRowCount(), is(4L));
+
+        RepositoryMethodMetrics findPageMetrics = repositoryMetricsInterceptor.getMetrics().get("TaskRepository.findPageByFinished");
+        assertThat(findPageMetrics.getCallCount(), is(1L));
+        assertThat(findPageMetrics.getReturnedRowCount(), is(1L));
+
+    }
+
+    /**
+     * 例外が発生した場合、エラー回数が記録される。
+     */
+    @Test
+    public void recordErrors() {
+
+        try {
+            taskRepository.delete("not-found-id");
+        } catch (RuntimeException e) {
+            // NOP
+        }
+
+        RepositoryMethodMetrics metrics = repositoryMetricsInterceptor.getMetrics().get("TaskRepository.delete");
+        assertThat(metrics.getCallCount(), is(1L));
+        assertThat(metrics.getErrorCount(), is(1L));
+
+    }
+
+}
@@ -0,0 +1,108 @@
+package com.example.domain.repository;
+
+import com.example.domain.repository.member.MemberRepository;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.jdbc.InstrumentedDataSource;
+import com.example.infra.jdbc.SqlBudgetGuard;
+import com.example.infra.jpa.HibernateStatisticsMonitor;
+import com.example.infra.monitoring.ApplicationReadiness;
+import com.example.infra.monitoring.RepositoryMetricsInterceptor;
+import com.example.infra.monitoring.RepositoryWarmer;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * 起動後のリポジトリのウォームアップと、完了までのレディネスをテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class RepositoryWarmerTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    MemberRepository memberRepository;
+
+    @Inject
+    @Named("transactionManager")
+    PlatformTransactionManager transactionManager;
+
+    @Inject
+    RepositoryMetricsInterceptor repositoryMetricsInterceptor;
+
+    @Inject
+    InstrumentedDataSource instrumentedDataSource;
+
+    @Inject
+    SqlBudgetGuard sqlBudgetGuard;
+
+    @Inject
+    HibernateStatisticsMonitor hibernateStatisticsMonitor;
+
+    @Inject
+    NamedParameterJdbcTemplate jdbcTemplate;
+
+    /**
+     * ウォームアップが完了するまではレディネスが保留され、データは変更されない。完了後は統計情報がリセットされる。
+     */
+    @Test
+    public void warmUp() {
+
+        Map<String, Object> emptyParams = Collections.emptyMap();
+        long taskCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task", emptyParams, Long.class);
+        long memberCount = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member", emptyParams, Long.class);
+
+        ApplicationReadiness readiness = new ApplicationReadiness();
+        RepositoryWarmer warmer = new RepositoryWarmer(taskRepository, memberRepository, transactionManager, readiness);
+        warmer.setIterations(3);
+        warmer.setRepositoryMetricsInterceptor(repositoryMetricsInterceptor);
+        warmer.setInstrumentedDataSource(instrumentedDataSource);
+        warmer.setSqlBudgetGuard(sqlBudgetGuard);
+        warmer.setHibernateStatisticsMonitor(hibernateStatisticsMonitor);
+        warmer.start();
+
+        assertThat(readiness.isReady(), is(false));
+        assertThat(readiness.getPendingConditions(), is(Arrays.asList("repositoryWarmUp")));
+
+        warmer.warmUp();
+
+        assertThat(readiness.isReady(), is(true));
+        assertThat(repositoryMetricsInterceptor.getMetrics().isEmpty(), is(true));
+        assertThat(instrumentedDataSource.getStatementHistograms().isEmpty(), is(true));
+        assertThat(sqlBudgetGuard.getTopOffenders(20).isEmpty(), is(true));
+        assertThat(hibernateStatisticsMonitor.getQueryExecutionCount(), is(0L));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM task", emptyParams, Long.class), is(taskCount));
+        assertThat(jdbcTemplate.queryForObject("SELECT COUNT(*) FROM member", emptyParams, Long.class), is(memberCount));
+
+    }
+
+    /**
+     * 無効な場合はレディネスを保留しない。
+     */
+    @Test
+    public void disabled() {
+
+        ApplicationReadiness readiness = new ApplicationReadiness();
+        RepositoryWarmer warmer = new RepositoryWarmer(taskRepository, memberRepository, transactionManager, readiness);
+        warmer.setEnabled(false);
+        warmer.start();
+
+        assertThat(readiness.isReady(), is(true));
+
+    }
+
+}
@@ -0,0 +1,109 @@
+package com.example.domain.repository;
+
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.jdbc.SqlBudgetGuard;
+import com.example.infra.jdbc.SqlBudgetUsage;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.dao.DataAccessException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * リクエスト毎のSQLの予算(実行回数、件数、DB時間)の監視をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class SqlBudgetGuardTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    SqlBudgetGuard sqlBudgetGuard;
+
+    int originalMaxStatements;
+
+    @Before
+    public void setup() {
+        originalMaxStatements = sqlBudgetGuard.getMaxStatements();
+        sqlBudgetGuard.reset();
+    }
+
+    @After
+    public void tearDown() {
+        sqlBudgetGuard.end();
+        sqlBudgetGuard.setMaxStatements(originalMaxStatements);
+        sqlBudgetGuard.setStrict(false);
+    }
+
+    /**
+     * リクエスト内で実行したSQLの回数と取得件数が記録される。
+     */
+    @Test
+    public void recordUsage() {
+
+        sqlBudgetGuard.begin("TaskController.list");
+        taskRepository.findAllByFinished("00000000-", false);
+        taskRepository.findAllByFinished("00000000-", true);
+        SqlBudgetUsage usage = sqlBudgetGuard.end();
+
+        assertThat(usage.getStatementCount(), is(2));
+        assertThat(usage.getRowCount(), is(4L));
+        assertThat(usage.isRejected(), is(false));
+        assertThat(sqlBudgetGuard.getExceededCount(), is(0L));
+
+    }
+
+    /**
+     * 予算を超えたリクエストはハンドラ毎に記録される。
+     */
+    @Test
+    public void exceeded() {
+
+        sqlBudgetGuard.setMaxStatements(1);
+
+        sqlBudgetGuard.begin("TaskController.list");
+        taskRepository.findAllByFinished("00000000-", false);
+        taskRepository.findAllByFinished("00000000-", true);
+        sqlBudgetGuard.end();
+
+        assertThat(sqlBudgetGuard.getExceededCount(), is(1L));
+        assertThat(sqlBudgetGuard.getTopOffenders(10).get(0).get("handler"), is((Object) "TaskController.list"));
+        assertThat(sqlBudgetGuard.getTopOffenders(10).get(0).get("maxStatementCount"), is((Object) 2));
+
+    }
+
+    /**
+     * strictモードでは予算を超えたSQLの実行が拒否される。
+     */
+    @Test
+    public void rejectInStrictMode() {
+
+        sqlBudgetGuard.setMaxStatements(1);
+        sqlBudgetGuard.setStrict(true);
+
+        sqlBudgetGuard.begin("TaskController.list");
+        taskRepository.findAllByFinished("00000000-", false);
+        try {
+            taskRepository.findAllByFinished("00000000-", true);
+            fail();
+        } catch (DataAccessException e) {
+            // NOP
+        }
+        SqlBudgetUsage usage = sqlBudgetGuard.end();
+
+        assertThat(usage.isRejected(), is(true));
+        assertThat(sqlBudgetGuard.getRejectedCount(), is(1L));
+
+    }
+
+}
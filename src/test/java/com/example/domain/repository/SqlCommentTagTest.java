@@ -0,0 +1,110 @@
+package com.example.domain.repository;
+
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.jdbc.InstrumentedDataSource;
+import com.example.infra.jdbc.StatementExecution;
+import com.example.infra.jdbc.StatementExecutionListener;
+import com.example.infra.jpa.SqlCommentTagInterceptor;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.slf4j.MDC;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * SQLコメントによる呼び出し元の付与をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class SqlCommentTagTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    InstrumentedDataSource dataSource;
+
+    final List<String> sqls = new ArrayList<>();
+
+    final StatementExecutionListener listener = new StatementExecutionListener() {
+        @Override
+        public boolean isBindValuesRequired() {
+            return false;
+        }
+
+        @Override
+        public boolean isExecutionRequired(long elapsedNanos) {
+            return true;
+        }
+
+        @Override
+        public void onExecuted(StatementExecution execution) {
+            sqls.add(execution.getSql());
+        }
+    };
+
+    @Before
+    public void setup() {
+        dataSource.addListener(listener);
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.removeListener(listener);
+        SqlCommentTagInterceptor.setMode(SqlCommentTagInterceptor.Mode.NONE);
+        MDC.remove("X-Track");
+    }
+
+    /**
+     * デフォルト(NONE)ではコメントが付与されない。
+     */
+    @Test
+    public void none() {
+
+        taskRepository.findOneById("00000000-0000-0000-0000-000000000001");
+
+        assertThat(sqls.get(0).startsWith("/* TaskRepository"), is(false));
+
+    }
+
+    /**
+     * METHODではリポジトリメソッドがコメントとして付与される。
+     */
+    @Test
+    public void method() {
+
+        SqlCommentTagInterceptor.setMode(SqlCommentTagInterceptor.Mode.METHOD);
+        MDC.put("X-Track", "track0001");
+
+        taskRepository.findOneById("00000000-0000-0000-0000-000000000001");
+
+        assertThat(sqls.get(0).startsWith("/* TaskRepository.findOneById */ "), is(true));
+
+    }
+
+    /**
+     * METHOD_AND_TRACKではX-Trackとリポジトリメソッドがコメントとして付与される。
+     * コメントを閉じる文字列はX-Trackから除去される。
+     */
+    @Test
+    public void methodAndTrack() {
+
+        SqlCommentTagInterceptor.setMode(SqlCommentTagInterceptor.Mode.METHOD_AND_TRACK);
+        MDC.put("X-Track", "track0001*/ drop");
+
+        taskRepository.findOneById("00000000-0000-0000-0000-000000000001");
+
+        assertThat(sqls.get(0).startsWith("/* X-Track:track0001drop TaskRepository.findOneById */ "), is(true));
+
+    }
+
+}
@@ -0,0 +1,123 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.helper.SqlStatementRecorder;
+import com.example.domain.repository.helper.TaskEntityHelper;
+import com.example.domain.repository.task.TaskRepository;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Entity操作で発行されるSQLの回数(JDBCバッチの利用有無を含む)をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class SqlStatementCountTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    TaskEntityHelper taskEntityHelper;
+
+    @Inject
+    SqlStatementRecorder sqlStatementRecorder;
+
+    @Before
+    public void setup() {
+        taskEntityHelper.deleteCreatedRecordsOnTesting();
+    }
+
+    @After
+    public void tearDown() {
+        try {
+            sqlStatementRecorder.stop();
+        } catch (IllegalStateException e) {
+            // NOP
+        }
+    }
+
+    /**
+     * 複数Entityの登録はSELECTを発行せず、1回のJDBCバッチで実行される。
+     */
+    @Transactional
+    @Test
+    public void saveMultipleEntitiesInBatch() {
+
+        // setup
+        DateTime currentDateTime = new DateTime();
+        List<Task> newTasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task newTask = new Task();
+            newTask.setTitle("[Test] batch insert task " + i);
+            newTask.setCreatedAt(currentDateTime.toDate());
+            newTasks.add(newTask);
+        }
+
+        // test
+        sqlStatementRecorder.start();
+        taskRepository.save(newTasks);
+        taskRepository.flush();
+
+        // assert
+        sqlStatementRecorder.stop()
+                .expectSelects(0)
+                .expectInserts(1)
+                .expectBatches(1)
+                .expectBatchedStatements(3);
+
+    }
+
+    /**
+     * 永続化コンテキストで管理されていないEntityの更新(merge)では、SELECTが1回とUPDATEが1回発行される。
+     */
+    @Transactional
+    @Test
+    public void mergeDetachedEntity() {
+
+        // setup
+        Task detachedTask = taskEntityHelper.selectById("00000000-0000-0000-0000-000000000001");
+        detachedTask.setTitle("[Test] merged task");
+
+        // test
+        sqlStatementRecorder.start();
+        taskRepository.save(detachedTask);
+        taskRepository.flush();
+
+        // assert
+        sqlStatementRecorder.stop()
+                .expectSelects(1)
+                .expectUpdates(1);
+
+    }
+
+    /**
+     * 同一トランザクション内で同じEntityを2回取得した場合、SELECTは1回だけ発行される。
+     */
+    @Transactional
+    @Test
+    public void findOneTwiceOnSameTransaction() {
+
+        // test
+        sqlStatementRecorder.start();
+        taskRepository.findOne("00000000-0000-0000-0000-000000000001");
+        taskRepository.findOne("00000000-0000-0000-0000-000000000001");
+
+        // assert
+        sqlStatementRecorder.stop()
+                .expectSelects(1)
+                .expectUpdates(0);
+
+    }
+
+}
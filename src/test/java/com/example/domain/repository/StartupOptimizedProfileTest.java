@@ -0,0 +1,86 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.domain.repository.task.TaskScrollCallback;
+import com.example.infra.startup.ComponentIndex;
+import com.example.infra.startup.StartupTimingRecorder;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+import java.util.Arrays;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * クラスパスをスキャンせずにコンポーネントインデックスからエンティティとリポジトリを登録する起動モードをテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+@ActiveProfiles(ComponentIndex.STARTUP_OPTIMIZED_PROFILE)
+public class StartupOptimizedProfileTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    StartupTimingRecorder startupTimingRecorder;
+
+    /**
+     * インデックスにエンティティとリポジトリが登録されている。
+     */
+    @Test
+    public void index() {
+
+        ComponentIndex index = ComponentIndex.loadOrScan(getClass().getClassLoader());
+
+        assertThat(index.getEntityClassNames(), is(Arrays.asList(
+                "com.example.domain.model.Member", "com.example.domain.model.Task")));
+        assertThat(index.getRepositoryInterfaceNames(), is(Arrays.asList(
+                "com.example.domain.repository.member.MemberRepository", "com.example.domain.repository.task.TaskRepository")));
+
+    }
+
+    /**
+     * 名前付きクエリ、クエリメソッド、カスタム実装が使用できる。
+     */
+    @Test
+    public void repositoryMethods() {
+
+        assertThat(taskRepository.findOneById("00000000-0000-0000-0000-000000000001"), notNullValue());
+
+        Page<Task> page = taskRepository.findPageByFinished(false, new PageRequest(0, 1, Sort.Direction.ASC, "createdAt"));
+        assertThat(page.getTotalElements(), is(2L));
+
+        long count = taskRepository.scrollByFinished(true, 10, new TaskScrollCallback() {
+            @Override
+            public boolean handle(Task task) {
+                return true;
+            }
+        });
+        assertThat(count, is(2L));
+
+    }
+
+    /**
+     * 起動フェーズ毎の時間が記録される。
+     */
+    @Test
+    public void startupTimings() {
+
+        assertThat(startupTimingRecorder.getPhaseMillis().get("entityManagerFactory") > 0, is(true));
+        assertThat(startupTimingRecorder.getPhaseMillis().get("repositories") > 0, is(true));
+        assertThat(startupTimingRecorder.getPhaseMillis().get("contextRefresh"), notNullValue());
+
+    }
+
+}
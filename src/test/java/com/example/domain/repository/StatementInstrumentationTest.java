@@ -0,0 +1,153 @@
+package com.example.domain.repository;
+
+import com.example.domain.repository.helper.TaskEntityHelper;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.infra.jdbc.InstrumentedDataSource;
+import com.example.infra.jdbc.SlowQueryLogger;
+import com.example.infra.jdbc.StatementExecution;
+import com.example.infra.jdbc.StatementExecutionListener;
+import com.example.infra.monitoring.RepositoryInvocationContext;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+
+import javax.inject.Inject;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+
+/**
+ * SQLの計測(InstrumentedDataSource)とスロークエリの捕捉をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class StatementInstrumentationTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    TaskEntityHelper taskEntityHelper;
+
+    @Inject
+    InstrumentedDataSource dataSource;
+
+    @Inject
+    SlowQueryLogger slowQueryLogger;
+
+    final List<StatementExecution> executions = new ArrayList<>();
+    final List<String> repositoryMethods = new ArrayList<>();
+
+    final StatementExecutionListener listener = new StatementExecutionListener() {
+        @Override
+        public boolean isBindValuesRequired() {
+            return true;
+        }
+
+        @Override
+        public boolean isExecutionRequired(long elapsedNanos) {
+            return true;
+        }
+
+        @Override
+        public void onExecuted(StatementExecution execution) {
+            executions.add(execution);
+            repositoryMethods.add(RepositoryInvocationContext.getCurrentMethod());
+        }
+    };
+
+    long originalThresholdMillis;
+
+    @Before
+    public void setup() {
+        taskEntityHelper.deleteCreatedRecordsOnTesting();
+        dataSource.addListener(listener);
+        originalThresholdMillis = slowQueryLogger.getThresholdMillis();
+    }
+
+    @After
+    public void tearDown() {
+        dataSource.removeListener(listener);
+        slowQueryLogger.setThresholdMillis(originalThresholdMillis);
+    }
+
+    /**
+     * 実行したSQLのバインド値、取得件数、呼び出し元のリポジトリメソッドが通知される。
+     */
+    @Test
+    public void notifyExecution() {
+
+        taskRepository.findOneById("00000000-0000-0000-0000-000000000001");
+
+        assertThat(executions.size(), is(1));
+        StatementExecution execution = executions.get(0);
+        assertThat(execution.getKind(), is(StatementExecution.Kind.QUERY));
+        assertThat(execution.getBindValues(), is(Arrays.<Object>asList("00000000-0000-0000-0000-000000000001")));
+        assertThat(execution.getRowCount(), is(1L));
+        assertThat(repositoryMethods.get(0), is("TaskRepository.findOneById"));
+
+    }
+
+    /**
+     * スロークエリのログが無効で、バインド値を必要とするリスナーがいなければ、バインド値は捕捉されない。
+     */
+    @Test
+    public void skipBindValuesCaptureWhenSlowQueryLoggingIsDisabled() {
+
+        final List<StatementExecution> executionsWithoutBindValues = new ArrayList<>();
+        StatementExecutionListener bindValuesNotRequiredListener = new StatementExecutionListener() {
+            @Override
+            public boolean isBindValuesRequired() {
+                return false;
+            }
+
+            @Override
+            public boolean isExecutionRequired(long elapsedNanos) {
+                return true;
+            }
+
+            @Override
+            public void onExecuted(StatementExecution execution) {
+                executionsWithoutBindValues.add(execution);
+            }
+        };
+        slowQueryLogger.setEnabled(false);
+        dataSource.removeListener(listener);
+        dataSource.addListener(bindValuesNotRequiredListener);
+        try {
+
+            taskRepository.findOneById("00000000-0000-0000-0000-000000000001");
+
+        } finally {
+            slowQueryLogger.setEnabled(true);
+            dataSource.removeListener(bindValuesNotRequiredListener);
+        }
+
+        assertThat(executionsWithoutBindValues.size(), is(1));
+        assertThat(executionsWithoutBindValues.get(0).getBindValues().isEmpty(), is(true));
+        assertThat(executionsWithoutBindValues.get(0).getRowCount(), is(1L));
+
+    }
+
+    /**
+     * 閾値を超えたSQLがスロークエリとして捕捉される。
+     */
+    @Test
+    public void captureSlowQuery() {
+
+        slowQueryLogger.setThresholdMillis(0);
+        long capturedCount = slowQueryLogger.getCapturedCount();
+
+        taskRepository.findOneById("00000000-0000-0000-0000-000000000001");
+
+        assertThat(slowQueryLogger.getCapturedCount(), is(capturedCount + 1));
+
+    }
+
+}
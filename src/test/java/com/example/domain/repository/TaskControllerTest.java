@@ -0,0 +1,384 @@
+package com.example.domain.repository;
+
+import com.example.app.task.TaskController;
+import com.example.domain.model.Task;
+import com.example.domain.repository.task.TaskScrollCallback;
+import com.example.domain.service.task.TaskService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.invocation.InvocationOnMock;
+import org.mockito.stubbing.Answer;
+import org.springframework.context.ApplicationContext;
+import org.springframework.http.MediaType;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.validation.beanvalidation.LocalValidatorFactoryBean;
+
+import javax.inject.Inject;
+import javax.servlet.ServletOutputStream;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.containsString;
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.sameInstance;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+import static org.mockito.Mockito.any;
+import static org.mockito.Mockito.anyInt;
+import static org.mockito.Mockito.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.put;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * タスクのコントローラをテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class TaskControllerTest {
+
+    @Inject
+    ApplicationContext applicationContext;
+
+    final ObjectMapper objectMapper = new ObjectMapper();
+
+    TaskController taskController;
+
+    @Before
+    public void setup() {
+        taskController = applicationContext.getAutowireCapableBeanFactory().createBean(TaskController.class);
+    }
+
+    /**
+     * タスクが0件の場合、空のJSON配列が返却される。
+     */
+    @Test
+    public void listNoTask() throws IOException {
+
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        scanWith(Collections.<Task>emptyList(), response, new ArrayList<Integer>());
+
+        taskController.list(false, response);
+
+        assertThat(response.getContentType(), is("application/json;charset=UTF-8"));
+        JsonNode tasks = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(tasks.isArray(), is(true));
+        assertThat(tasks.size(), is(0));
+
+    }
+
+    /**
+     * タスクが1件の場合、日時をエポックミリ秒とするJSONオブジェクト1件の配列が返却される。
+     */
+    @Test
+    public void listOneTask() throws IOException {
+
+        Task task = newTask(1);
+        task.setDeadlineDate(new Date(1400000000000L));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        scanWith(Arrays.asList(task), response, new ArrayList<Integer>());
+
+        taskController.list(false, response);
+
+        JsonNode tasks = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(tasks.size(), is(1));
+        JsonNode json = tasks.get(0);
+        assertThat(json.get("id").asText(), is("task-1"));
+        assertThat(json.get("title").asText(), is("title-1"));
+        assertThat(json.get("description").asText(), is("description \"1\""));
+        assertThat(json.get("deadlineDate").asLong(), is(1400000000000L));
+        assertThat(json.get("finished").asBoolean(), is(false));
+        assertThat(json.get("finishedAt").isNull(), is(true));
+        assertThat(json.get("createdAt").asLong(), is(1300000000001L));
+        assertThat(json.get("version").asLong(), is(1L));
+
+    }
+
+    /**
+     * タスクが複数件の場合、作成順のJSON配列が返却され、最初のタスクの後とtask.stream.flushInterval件毎にフラッシュされる。
+     */
+    @Test
+    public void listManyTasks() throws IOException {
+
+        ReflectionTestUtils.setField(taskController, "flushInterval", 3);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 7; i++) {
+            tasks.add(newTask(i));
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Integer> flushedCounts = new ArrayList<>();
+        scanWith(tasks, response, flushedCounts);
+
+        taskController.list(false, response);
+
+        assertThat(flushedCounts, is(Arrays.asList(1, 3, 6)));
+        JsonNode json = objectMapper.readTree(response.getContentAsByteArray());
+        assertThat(json.size(), is(7));
+        for (int i = 0; i < 7; i++) {
+            assertThat(json.get(i).get("id").asText(), is("task-" + (i + 1)));
+        }
+
+    }
+
+    /**
+     * task.stream.flushIntervalが0の場合、最初のタスクの後だけフラッシュされる。
+     */
+    @Test
+    public void listWithoutFlushInterval() throws IOException {
+
+        ReflectionTestUtils.setField(taskController, "flushInterval", 0);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        List<Integer> flushedCounts = new ArrayList<>();
+        scanWith(Arrays.asList(newTask(1), newTask(2), newTask(3)), response, flushedCounts);
+
+        taskController.list(false, response);
+
+        assertThat(flushedCounts, is(Arrays.asList(1)));
+        assertThat(objectMapper.readTree(response.getContentAsByteArray()).size(), is(3));
+
+    }
+
+    /**
+     * クライアントが切断された(書き込みでIOExceptionが発生した)場合、IOExceptionがスローされ、走査のトランザクションはロールバックされる。
+     */
+    @Test
+    public void rollbackScanOnClientDisconnect() throws Exception {
+
+        final IOException disconnected = new IOException("Broken pipe");
+        final List<Integer> completionStatuses = new ArrayList<>();
+        ServletOutputStream outputStream = mock(ServletOutputStream.class);
+        doAnswer(new Answer<Void>() {
+            @Override
+            public Void answer(InvocationOnMock invocation) throws Throwable {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+                    @Override
+                    public void afterCompletion(int status) {
+                        completionStatuses.add(status);
+                    }
+                });
+                throw disconnected;
+            }
+        }).when(outputStream).write(any(byte[].class), anyInt(), anyInt());
+        HttpServletResponse response = mock(HttpServletResponse.class);
+        when(response.getOutputStream()).thenReturn(outputStream);
+
+        try {
+            taskController.list(false, response);
+            fail();
+        } catch (IOException e) {
+            assertThat(e, sameInstance(disconnected));
+        }
+
+        assertThat(completionStatuses, is(Arrays.asList(TransactionSynchronization.STATUS_ROLLED_BACK)));
+
+    }
+
+    /**
+     * If-None-Matchが現在のETagと一致する場合(弱いETag、*、複数指定を含む)、タスクを読み込まずに304が返却される。
+     */
+    @Test
+    public void getNotModified() throws Exception {
+
+        TaskService taskService = mockTaskService();
+        when(taskService.getVersion("task-1")).thenReturn(3L);
+        MockMvc mockMvc = mockMvc();
+
+        for (String ifNoneMatch : Arrays.asList("\"task-1.3\"", "W/\"task-1.3\"", "*", "\"task-1.2\", W/\"task-1.3\"")) {
+            mockMvc.perform(get("/tasks/task-1").header("If-None-Match", ifNoneMatch))
+                    .andExpect(status().isNotModified())
+                    .andExpect(header().string("ETag", "\"task-1.3\""));
+        }
+        verify(taskService, never()).getTask(anyString());
+
+    }
+
+    /**
+     * If-None-Matchが一致しない場合と指定されない場合、タスクがETagとともに返却される。
+     */
+    @Test
+    public void getModified() throws Exception {
+
+        TaskService taskService = mockTaskService();
+        when(taskService.getVersion("task-1")).thenReturn(3L);
+        when(taskService.getTask("task-1")).thenReturn(newTask(1, 3));
+        MockMvc mockMvc = mockMvc();
+
+        mockMvc.perform(get("/tasks/task-1").header("If-None-Match", "\"task-1.2\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-1.3\""))
+                .andExpect(content().string(containsString("\"id\":\"task-1\"")));
+        mockMvc.perform(get("/tasks/task-1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-1.3\""));
+
+    }
+
+    /**
+     * If-Matchのバージョンが古い場合、412が返却される。
+     */
+    @Test
+    public void updateWithStaleIfMatch() throws Exception {
+
+        TaskService taskService = mockTaskService();
+        when(taskService.updateTask(eq("task-1"), eq(2L), any(Task.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Task.class, "task-1"));
+
+        mockMvc().perform(put("/tasks/task-1").header("If-Match", "\"task-1.2\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"changed\"}"))
+                .andExpect(status().isPreconditionFailed());
+
+    }
+
+    /**
+     * If-Matchが不正な形式の場合と別のタスクのETagの場合、更新せずに412が返却される。
+     */
+    @Test
+    public void updateWithUnusableIfMatch() throws Exception {
+
+        TaskService taskService = mockTaskService();
+        MockMvc mockMvc = mockMvc();
+
+        for (String ifMatch : Arrays.asList("task-1.3", "\"task-1.x\"", "\"task-1.\"", "W/\"task-1.3\"", "\"task-2.3\"")) {
+            mockMvc.perform(put("/tasks/task-1").header("If-Match", ifMatch)
+                    .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"changed\"}"))
+                    .andExpect(status().isPreconditionFailed());
+        }
+        verify(taskService, never()).updateTask(anyString(), (Long) any(), any(Task.class));
+
+    }
+
+    /**
+     * If-Matchが現在のETagの場合、そのバージョンを条件に更新され、新しいETagが返却される。
+     */
+    @Test
+    public void updateWithCurrentIfMatch() throws Exception {
+
+        TaskService taskService = mockTaskService();
+        when(taskService.updateTask(eq("task-1"), eq(3L), any(Task.class))).thenReturn(newTask(1, 4));
+
+        mockMvc().perform(put("/tasks/task-1").header("If-Match", "\"task-1.3\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"changed\",\"finished\":true}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-1.4\""));
+
+        ArgumentCaptor<Task> changes = ArgumentCaptor.forClass(Task.class);
+        verify(taskService).updateTask(eq("task-1"), eq(3L), changes.capture());
+        assertThat(changes.getValue().getTitle(), is("changed"));
+        assertThat(changes.getValue().isFinished(), is(true));
+
+    }
+
+    /**
+     * If-Matchが*の場合と指定されない場合、バージョンを条件とせずに更新される。
+     */
+    @Test
+    public void updateUnconditionally() throws Exception {
+
+        TaskService taskService = mockTaskService();
+        when(taskService.updateTask(eq("task-1"), eq((Long) null), any(Task.class))).thenReturn(newTask(1, 4));
+        MockMvc mockMvc = mockMvc();
+
+        mockMvc.perform(put("/tasks/task-1").header("If-Match", "*")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"changed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-1.4\""));
+        mockMvc.perform(put("/tasks/task-1")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"title\":\"changed\"}"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", "\"task-1.4\""));
+        verify(taskService, times(2)).updateTask(eq("task-1"), eq((Long) null), any(Task.class));
+
+    }
+
+    /**
+     * 不正なリクエストボディ(タイトルなし)の場合、更新せずに400が返却される。
+     */
+    @Test
+    public void updateWithInvalidBody() throws Exception {
+
+        TaskService taskService = mockTaskService();
+
+        mockMvc().perform(put("/tasks/task-1").header("If-Match", "\"task-1.3\"")
+                .contentType(MediaType.APPLICATION_JSON).content("{\"description\":\"no title\"}"))
+                .andExpect(status().isBadRequest());
+        verify(taskService, never()).updateTask(anyString(), (Long) any(), any(Task.class));
+
+    }
+
+    /**
+     * 走査をタスクの一覧で代替する。コールバックの度に、レスポンスにフラッシュされていれば処理済みの件数を記録する。
+     */
+    private void scanWith(final List<Task> tasks, final MockHttpServletResponse response, final List<Integer> flushedCounts) {
+        TaskService scanningTaskService = mock(TaskService.class);
+        doAnswer(new Answer<Long>() {
+            @Override
+            public Long answer(InvocationOnMock invocation) {
+                TaskScrollCallback callback = (TaskScrollCallback) invocation.getArguments()[1];
+                int flushedLength = response.getContentAsByteArray().length;
+                for (int i = 0; i < tasks.size(); i++) {
+                    callback.handle(tasks.get(i));
+                    if (response.getContentAsByteArray().length != flushedLength) {
+                        flushedLength = response.getContentAsByteArray().length;
+                        flushedCounts.add(i + 1);
+                    }
+                }
+                return (long) tasks.size();
+            }
+        }).when(scanningTaskService).scanByFinished(eq(false), any(TaskScrollCallback.class));
+        ReflectionTestUtils.setField(taskController, "taskService", scanningTaskService);
+    }
+
+    private TaskService mockTaskService() {
+        TaskService taskService = mock(TaskService.class);
+        ReflectionTestUtils.setField(taskController, "taskService", taskService);
+        return taskService;
+    }
+
+    private MockMvc mockMvc() {
+        LocalValidatorFactoryBean validator = new LocalValidatorFactoryBean();
+        validator.afterPropertiesSet();
+        return MockMvcBuilders.standaloneSetup(taskController).setValidator(validator).build();
+    }
+
+    private static Task newTask(int number) {
+        return newTask(number, number);
+    }
+
+    private static Task newTask(int number, long version) {
+        Task task = new Task();
+        task.setId("task-" + number);
+        task.setTitle("title-" + number);
+        task.setDescription("description \"" + number + "\"");
+        task.setCreatedAt(new Date(1300000000000L + number));
+        task.setVersion(version);
+        return task;
+    }
+
+}
@@ -0,0 +1,197 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.helper.RecordedStatements;
+import com.example.domain.repository.helper.SqlStatementRecorder;
+import com.example.domain.repository.helper.TaskEntityHelper;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.domain.repository.task.TaskScrollCallback;
+import com.example.domain.service.task.TaskService;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.terasoluna.gfw.common.exception.ResourceNotFoundException;
+
+import javax.inject.Inject;
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.junit.Assert.assertThat;
+import static org.junit.Assert.fail;
+
+/**
+ * タスクのサービスをテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class TaskServiceTest {
+
+    @Inject
+    TaskService taskService;
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    TaskEntityHelper taskEntityHelper;
+
+    @Inject
+    SqlStatementRecorder sqlStatementRecorder;
+
+    @PersistenceContext
+    EntityManager entityManager;
+
+    @Before
+    public void setup() {
+        taskEntityHelper.deleteCreatedRecordsOnTesting();
+    }
+
+    @After
+    public void tearDown() {
+        try {
+            sqlStatementRecorder.stop();
+        } catch (IllegalStateException e) {
+            // NOP
+        }
+    }
+
+    /**
+     * 作成順にタスクが1件ずつコールバックされ、処理済みのタスクは永続コンテキストから除外される。
+     */
+    @Test
+    public void scanByFinished() {
+
+        final List<String> ids = new ArrayList<>();
+        final List<Boolean> previousTaskManaged = new ArrayList<>();
+        long count = taskService.scanByFinished(false, new TaskScrollCallback() {
+            Task previousTask;
+
+            @Override
+            public boolean handle(Task task) {
+                if (task.getId().startsWith("00000000-")) {
+                    ids.add(task.getId());
+                }
+                if (previousTask != null) {
+                    previousTaskManaged.add(entityManager.contains(previousTask));
+                }
+                previousTask = task;
+                return true;
+            }
+        });
+
+        assertThat(ids, is(Arrays.asList("00000000-0000-0000-0000-000000000001", "00000000-0000-0000-0000-000000000002")));
+        assertThat(count, is((long) previousTaskManaged.size() + 1));
+        assertThat(previousTaskManaged.contains(true), is(false));
+
+    }
+
+    /**
+     * コールバックが false を返すと、以降のタスクは読み込まれない。
+     */
+    @Test
+    public void stopScanning() {
+
+        final List<String> ids = new ArrayList<>();
+        long count = taskService.scanByFinished(true, new TaskScrollCallback() {
+            @Override
+            public boolean handle(Task task) {
+                ids.add(task.getId());
+                return false;
+            }
+        });
+
+        assertThat(count, is(1L));
+        assertThat(ids, is(Arrays.asList("00000000-1000-0000-0000-000000000003")));
+
+    }
+
+    /**
+     * 存在しないタスクの取得は ResourceNotFoundException になる。
+     */
+    @Test
+    public void getMissingTask() {
+
+        try {
+            taskService.getTask("foo");
+            fail();
+        } catch (ResourceNotFoundException e) {
+            // NOP
+        }
+
+        try {
+            taskService.getVersion("foo");
+            fail();
+        } catch (ResourceNotFoundException e) {
+            // NOP
+        }
+
+    }
+
+    /**
+     * バージョンの取得ではエンティティを読み込まず、バージョンだけを SELECT する。
+     */
+    @Test
+    public void getVersionWithoutLoadingTask() {
+
+        // setup
+        long expectedVersion = taskEntityHelper.selectById("00000000-0000-0000-0000-000000000001").getVersion();
+
+        // test
+        sqlStatementRecorder.start();
+        long version = taskService.getVersion("00000000-0000-0000-0000-000000000001");
+
+        // assert
+        assertThat(version, is(expectedVersion));
+        RecordedStatements statements = sqlStatementRecorder.stop().expectSelects(1);
+        String sql = statements.getExecutions().get(0).getSql().toLowerCase();
+        assertThat(sql.contains("version"), is(true));
+        assertThat(sql.contains("title"), is(false));
+
+    }
+
+    /**
+     * クライアントが取得したバージョンが古い場合、更新は OptimisticLockingFailureException になり、タスクは変更されない。
+     */
+    @Test
+    public void updateWithStaleVersion() {
+
+        // setup
+        Task newTask = new Task();
+        newTask.setTitle("[Test] updateWithStaleVersion");
+        newTask.setCreatedAt(new Date());
+        Task createdTask = taskRepository.save(newTask);
+        taskEntityHelper.updateVersionWithinNewTransaction(createdTask.getId());
+
+        Task changes = new Task();
+        changes.setTitle("[Test] updated");
+
+        // test
+        try {
+            taskService.updateTask(createdTask.getId(), 0L, changes);
+            fail();
+        } catch (OptimisticLockingFailureException e) {
+            // NOP
+        }
+
+        // assert
+        Task task = taskService.getTask(createdTask.getId());
+        assertThat(task.getTitle(), is("[Test] updateWithStaleVersion"));
+        assertThat(task.getVersion(), is(1L));
+
+        // test that the current version is accepted
+        Task updatedTask = taskService.updateTask(createdTask.getId(), 1L, changes);
+        assertThat(updatedTask.getTitle(), is("[Test] updated"));
+        assertThat(updatedTask.getVersion(), is(2L));
+
+    }
+
+}
@@ -0,0 +1,232 @@
+package com.example.domain.repository;
+
+import com.example.domain.model.Task;
+import com.example.domain.repository.helper.TaskEntityHelper;
+import com.example.domain.repository.task.TaskRepository;
+import com.example.domain.repository.task.TaskWriteBehindBuffer;
+import org.joda.time.DateTime;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.springframework.test.context.ContextConfiguration;
+import org.springframework.test.context.junit4.SpringJUnit4ClassRunner;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.inject.Inject;
+import javax.inject.Named;
+import javax.sql.DataSource;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.Date;
+import java.util.List;
+
+import static org.hamcrest.CoreMatchers.is;
+import static org.hamcrest.CoreMatchers.notNullValue;
+import static org.junit.Assert.assertThat;
+
+/**
+ * タスクの書き込みバッファ(write-behind)をテストする。
+ */
+@RunWith(SpringJUnit4ClassRunner.class)
+@ContextConfiguration(locations = {"classpath:test-context.xml"})
+public class TaskWriteBehindBufferTest {
+
+    @Inject
+    TaskRepository taskRepository;
+
+    @Inject
+    @Named("dataSource")
+    DataSource dataSource;
+
+    @Inject
+    @Named("dataSourceTransactionManager")
+    PlatformTransactionManager transactionManager;
+
+    @Inject
+    TaskEntityHelper taskEntityHelper;
+
+    TaskWriteBehindBuffer taskWriteBehindBuffer;
+
+    @Before
+    public void setup() {
+        taskEntityHelper.deleteCreatedRecordsOnTesting();
+        taskWriteBehindBuffer = new TaskWriteBehindBuffer(taskRepository, dataSource, transactionManager);
+    }
+
+    @After
+    public void tearDown() throws InterruptedException {
+        taskWriteBehindBuffer.close();
+    }
+
+    /**
+     * AckMode.COMMITの場合、コミット後に呼び出し元へ復帰する。
+     */
+    @Test
+    public void saveWithCommitAck() {
+
+        // setup
+        taskWriteBehindBuffer.setEnabled(true);
+        taskWriteBehindBuffer.setAckMode(TaskWriteBehindBuffer.AckMode.COMMIT);
+        taskWriteBehindBuffer.setBatchSize(2);
+        taskWriteBehindBuffer.start();
+        DateTime currentDateTime = new DateTime();
+
+        // test
+        Task newTask = new Task();
+        newTask.setTitle("[Test] create new task");
+        newTask.setDescription("Testing that create a new task via write-behind buffer.");
+        newTask.setDeadlineDate(currentDateTime.plusDays(7).toLocalDate().toDate());
+        newTask.setCreatedAt(currentDateTime.toDate());
+        Task createdTask = taskWriteBehindBuffer.save(newTask);
+
+        // assert
+        assertThat(createdTask.getId(), is(notNullValue()));
+        Task selectedTask = taskEntityHelper.selectById(createdTask.getId());
+        assertThat(selectedTask.getTitle(), is("[Test] create new task"));
+        assertThat(selectedTask.getDescription(), is("Testing that create a new task via write-behind buffer."));
+        assertThat(selectedTask.getDeadlineDate(), is(currentDateTime.plusDays(7).toLocalDate().toDate()));
+        assertThat(selectedTask.getCreatedAt(), is((Date) new Timestamp(currentDateTime.toDate().getTime())));
+        assertThat(selectedTask.isFinished(), is(Boolean.FALSE));
+        assertThat(selectedTask.getVersion(), is(0L));
+
+    }
+
+    /**
+     * AckMode.ENQUEUEの場合、バッファ投入後に復帰し、クローズ時に全てのタスクが登録される。
+     */
+    @Test
+    public void saveWithEnqueueAck() throws InterruptedException {
+
+        // setup
+        taskWriteBehindBuffer.setEnabled(true);
+        taskWriteBehindBuffer.setAckMode(TaskWriteBehindBuffer.AckMode.ENQUEUE);
+        taskWriteBehindBuffer.setBatchSize(3);
+        taskWriteBehindBuffer.start();
+        DateTime currentDateTime = new DateTime();
+
+        // test
+        List<Task> createdTasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            Task newTask = new Task();
+            newTask.setTitle("[Test] create new task " + i);
+            newTask.setCreatedAt(currentDateTime.toDate());
+            createdTasks.add(taskWriteBehindBuffer.save(newTask));
+        }
+        taskWriteBehindBuffer.close();
+
+        // assert
+        for (Task createdTask : createdTasks) {
+            assertThat(taskEntityHelper.exists(createdTask.getId()), is(true));
+        }
+        assertThat(taskEntityHelper.countAll(Integer.class), is(14));
+
+    }
+
+    /**
+     * バッチの登録に失敗した場合、タスクを1件ずつ登録し直し、登録できないタスクのみ失敗させる。
+     */
+    @Test
+    public void retryOneByOneWhenBatchFailed() throws InterruptedException {
+
+        // setup
+        taskWriteBehindBuffer.setEnabled(true);
+        taskWriteBehindBuffer.setAckMode(TaskWriteBehindBuffer.AckMode.ENQUEUE);
+        taskWriteBehindBuffer.setBatchSize(3);
+        taskWriteBehindBuffer.start();
+
+        // test
+        List<Task> createdTasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task newTask = new Task();
+            // a task without title violates the NOT NULL constraint
+            newTask.setTitle(i == 1 ? null : "[Test] create new task " + i);
+            newTask.setCreatedAt(new Date());
+            createdTasks.add(taskWriteBehindBuffer.save(newTask));
+        }
+        taskWriteBehindBuffer.close();
+
+        // assert
+        assertThat(taskEntityHelper.exists(createdTasks.get(0).getId()), is(true));
+        assertThat(taskEntityHelper.exists(createdTasks.get(1).getId()), is(false));
+        assertThat(taskEntityHelper.exists(createdTasks.get(2).getId()), is(true));
+
+    }
+
+    /**
+     * AckMode.ENQUEUEの場合、クローズ時にバッファに残っているタスクも登録する。
+     */
+    @Test
+    public void flushPendingTasksOnClose() throws InterruptedException {
+
+        // setup
+        taskWriteBehindBuffer.setEnabled(true);
+        taskWriteBehindBuffer.setAckMode(TaskWriteBehindBuffer.AckMode.ENQUEUE);
+        // the flusher does not wake up by itself, so the tasks stay in the buffer until close
+        taskWriteBehindBuffer.setFlushIntervalMillis(60000);
+        taskWriteBehindBuffer.start();
+
+        // test
+        List<Task> createdTasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Task newTask = new Task();
+            newTask.setTitle("[Test] create new task " + i);
+            newTask.setCreatedAt(new Date());
+            createdTasks.add(taskWriteBehindBuffer.save(newTask));
+        }
+        taskWriteBehindBuffer.close();
+
+        // assert
+        assertThat(taskWriteBehindBuffer.getPendingCount(), is(0));
+        for (Task createdTask : createdTasks) {
+            assertThat(taskEntityHelper.exists(createdTask.getId()), is(true));
+        }
+
+    }
+
+    /**
+     * クローズ後はTaskRepository#saveに委譲する。
+     */
+    @Test
+    public void saveAfterClosed() throws InterruptedException {
+
+        // setup
+        taskWriteBehindBuffer.setEnabled(true);
+        taskWriteBehindBuffer.setAckMode(TaskWriteBehindBuffer.AckMode.COMMIT);
+        taskWriteBehindBuffer.start();
+        taskWriteBehindBuffer.close();
+
+        // test
+        Task newTask = new Task();
+        newTask.setTitle("[Test] create new task");
+        newTask.setCreatedAt(new Date());
+        Task createdTask = taskWriteBehindBuffer.save(newTask);
+
+        // assert
+        assertThat(taskEntityHelper.exists(createdTask.getId()), is(true));
+
+    }
+
+    /**
+     * 無効の場合、TaskRepository#saveに委譲する。
+     */
+    @Test
+    public void saveWhenDisabled() {
+
+        // setup
+        taskWriteBehindBuffer.setEnabled(false);
+        taskWriteBehindBuffer.start();
+
+        // test
+        Task newTask = new Task();
+        newTask.setTitle("[Test] create new task");
+        newTask.setCreatedAt(new Date());
+        Task createdTask = taskWriteBehindBuffer.save(newTask);
+
+        // assert
+        assertThat(taskEntityHelper.exists(createdTask.getId()), is(true));
+        assertThat(taskWriteBehindBuffer.getPendingCount(), is(0));
+
+    }
+
+}
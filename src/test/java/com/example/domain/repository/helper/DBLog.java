@@ -1,40 +1,91 @@
 package com.example.domain.repository.helper;
 
-import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
-import org.springframework.jdbc.core.namedparam.NamedParameterJdbcOperations;
 import org.springframework.stereotype.Component;
 
-import javax.inject.Inject;
-import javax.inject.Named;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.regex.Pattern;
 
 /**
  * Component for provide helper method that operate logs.
+ * <p/>
+ * Logs are kept in memory by {@link InMemoryLogAppender}.
  */
 @Component
 public class DBLog {
 
-    @Inject
-    @Named("jdbcTemplateForLogging")
-    NamedParameterJdbcOperations jdbcOperations;
+    private static final String REGEX_META_CHARACTERS = "\\^$.|?*+()[]{}";
+
+    private final ConcurrentMap<String, MessagePattern> messagePatterns = new ConcurrentHashMap<>();
 
     /**
      * Delete logs.
      */
     public void delete() {
-        jdbcOperations.getJdbcOperations().update("DELETE FROM logging_event_property");
-        jdbcOperations.getJdbcOperations().update("DELETE FROM logging_event_exception");
-        jdbcOperations.getJdbcOperations().update("DELETE FROM logging_event");
+        InMemoryLogAppender.clear();
     }
 
     /**
      * Count message that matches to specified message pattern(regex).
      */
     public int countByMessagePattern(String messagePattern) {
+        MessagePattern pattern = messagePatterns.get(messagePattern);
+        if (pattern == null) {
+            pattern = new MessagePattern(messagePattern);
+            messagePatterns.putIfAbsent(messagePattern, pattern);
+        }
+        return InMemoryLogAppender.count(pattern.literal, pattern.pattern);
+    }
+
+    private static class MessagePattern {
+
+        private final Pattern pattern;
+
+        /**
+         * The longest literal that a matching message always contains. Used to skip the regex on most messages.
+         */
+        private final String literal;
+
+        private MessagePattern(String messagePattern) {
+            this.pattern = Pattern.compile(messagePattern);
+            this.literal = longestLiteralOf(messagePattern);
+        }
 
-        MapSqlParameterSource params = new MapSqlParameterSource();
-        params.addValue("messagePattern", messagePattern);
+        /**
+         * Returns the longest literal of a pattern made of literal characters, escaped non-alphanumeric characters
+         * and the wildcards {@code .} and {@code .*}, or an empty string (a full scan) for any other pattern.
+         * Escapes such as {@code \\x41}, {@code \\0101}, {@code \\u0041} or a backreference {@code \\1} are not
+         * decoded, and fall back to a full scan.
+         */
+        private static String longestLiteralOf(String regex) {
+            String longest = "";
+            StringBuilder current = new StringBuilder();
+            for (int i = 0; i < regex.length(); i++) {
+                char c = regex.charAt(i);
+                if (c == '.') {
+                    longest = longer(longest, current);
+                    current.setLength(0);
+                    if (i + 1 < regex.length() && regex.charAt(i + 1) == '*') {
+                        i++;
+                    }
+                    continue;
+                }
+                if (c == '\\') {
+                    if (++i >= regex.length() || Character.isLetterOrDigit(regex.charAt(i))) {
+                        return "";
+                    }
+                    c = regex.charAt(i);
+                } else if (REGEX_META_CHARACTERS.indexOf(c) >= 0) {
+                    return "";
+                }
+                current.append(c);
+            }
+            return longer(longest, current);
+        }
 
-        return jdbcOperations.queryForObject("SELECT COUNT(*) FROM logging_event WHERE formatted_message REGEXP :messagePattern", params, Integer.class);
+        private static String longer(String longest, StringBuilder current) {
+            return current.length() > longest.length() ? current.toString() : longest;
+        }
     }
 
 }
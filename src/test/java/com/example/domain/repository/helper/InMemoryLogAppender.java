@@ -0,0 +1,80 @@
+package com.example.domain.repository.helper;
+
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.AppenderBase;
+
+import java.util.regex.Pattern;
+
+/**
+ * Logback appender that keeps formatted messages of log events in a ring buffer in memory.
+ * <p/>
+ * When more events than {@code capacity} are appended, the oldest events are overwritten, and counting fails
+ * until the next {@link #clear()} so that assertions never see an undercount.
+ * The buffer is shared by all instances, so that {@link DBLog} can query it without access to the logback configuration.
+ */
+public class InMemoryLogAppender extends AppenderBase<ILoggingEvent> {
+
+    private static final int DEFAULT_CAPACITY = 65536;
+
+    private static final Object lock = new Object();
+
+    private static String[] messages = new String[DEFAULT_CAPACITY];
+
+    private static long appendedCount;
+
+    private static long clearedCount;
+
+    /**
+     * Set capacity of the ring buffer. Events appended before are discarded.
+     */
+    public void setCapacity(int capacity) {
+        synchronized (lock) {
+            messages = new String[capacity];
+            appendedCount = 0;
+            clearedCount = 0;
+        }
+    }
+
+    @Override
+    protected void append(ILoggingEvent event) {
+        String message = event.getFormattedMessage();
+        synchronized (lock) {
+            messages[(int) (appendedCount % messages.length)] = message;
+            appendedCount++;
+        }
+    }
+
+    /**
+     * Discard all events.
+     */
+    static void clear() {
+        synchronized (lock) {
+            clearedCount = appendedCount;
+        }
+    }
+
+    /**
+     * Count events whose message contains the literal and contains a match of the pattern.
+     *
+     * @throws IllegalStateException if events appended since the last clear have been overwritten
+     */
+    static int count(String literal, Pattern pattern) {
+        synchronized (lock) {
+            long lost = appendedCount - clearedCount - messages.length;
+            if (lost > 0) {
+                throw new IllegalStateException(lost + " log events have been overwritten since the last clear."
+                        + " Increase the capacity of InMemoryLogAppender (" + messages.length + ").");
+            }
+            long first = clearedCount;
+            int count = 0;
+            for (long sequence = first; sequence < appendedCount; sequence++) {
+                String message = messages[(int) (sequence % messages.length)];
+                if (message != null && message.contains(literal) && pattern.matcher(message).find()) {
+                    count++;
+                }
+            }
+            return count;
+        }
+    }
+
+}
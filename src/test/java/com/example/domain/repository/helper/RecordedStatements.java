@@ -0,0 +1,135 @@
+package com.example.domain.repository.helper;
+
+import com.example.infra.jdbc.StatementExecution;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * SQL statements recorded by {@link SqlStatementRecorder}.
+ * <p/>
+ * Counts are the number of executions (round trips). A JDBC batch is counted once as its statement type
+ * and once as a batch.
+ */
+public class RecordedStatements {
+
+    private static final Pattern LEADING_COMMENTS = Pattern.compile("^(\\s*/\\*.*?\\*/)*\\s*", Pattern.DOTALL);
+
+    private final List<StatementExecution> executions = new ArrayList<>();
+
+    void add(StatementExecution execution) {
+        executions.add(execution);
+    }
+
+    public List<StatementExecution> getExecutions() {
+        return executions;
+    }
+
+    public int getSelectCount() {
+        return countByType("select");
+    }
+
+    public int getInsertCount() {
+        return countByType("insert");
+    }
+
+    public int getUpdateCount() {
+        return countByType("update");
+    }
+
+    public int getDeleteCount() {
+        return countByType("delete");
+    }
+
+    public int getBatchCount() {
+        int count = 0;
+        for (StatementExecution execution : executions) {
+            if (execution.getKind() == StatementExecution.Kind.BATCH) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Count statements that are added to JDBC batches.
+     */
+    public int getBatchedStatementCount() {
+        int count = 0;
+        for (StatementExecution execution : executions) {
+            if (execution.getKind() == StatementExecution.Kind.BATCH) {
+                count += execution.getBatchSize();
+            }
+        }
+        return count;
+    }
+
+    public RecordedStatements expectSelects(int expected) {
+        return expect("selects", expected, getSelectCount());
+    }
+
+    public RecordedStatements expectInserts(int expected) {
+        return expect("inserts", expected, getInsertCount());
+    }
+
+    public RecordedStatements expectUpdates(int expected) {
+        return expect("updates", expected, getUpdateCount());
+    }
+
+    public RecordedStatements expectDeletes(int expected) {
+        return expect("deletes", expected, getDeleteCount());
+    }
+
+    public RecordedStatements expectBatches(int expected) {
+        return expect("batches", expected, getBatchCount());
+    }
+
+    public RecordedStatements expectBatchedStatements(int expected) {
+        return expect("batched statements", expected, getBatchedStatementCount());
+    }
+
+    private RecordedStatements expect(String name, int expected, int actual) {
+        if (expected != actual) {
+            throw new AssertionError("Expected " + expected + " " + name + " but was " + actual + ".\n" + this);
+        }
+        return this;
+    }
+
+    private int countByType(String type) {
+        int count = 0;
+        for (StatementExecution execution : executions) {
+            if (type.equals(typeOf(execution.getSql()))) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    private static String typeOf(String sql) {
+        if (sql == null) {
+            return "";
+        }
+        String statement = LEADING_COMMENTS.matcher(sql).replaceFirst("");
+        int end = 0;
+        while (end < statement.length() && Character.isLetter(statement.charAt(end))) {
+            end++;
+        }
+        return statement.substring(0, end).toLowerCase(Locale.ENGLISH);
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder recorded = new StringBuilder("Recorded statements:");
+        for (StatementExecution execution : executions) {
+            recorded.append("\n  ").append(execution.getKind());
+            if (execution.getKind() == StatementExecution.Kind.BATCH) {
+                recorded.append('(').append(execution.getBatchSize()).append(')');
+            }
+            recorded.append(' ').append(execution.getSql());
+        }
+        return recorded.toString();
+    }
+
+}
@@ -0,0 +1,72 @@
+package com.example.domain.repository.helper;
+
+import com.example.infra.jdbc.InstrumentedDataSource;
+import com.example.infra.jdbc.StatementExecution;
+import com.example.infra.jdbc.StatementExecutionListener;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PostConstruct;
+import javax.annotation.PreDestroy;
+import javax.inject.Inject;
+
+/**
+ * Component for record SQL statements that are executed on the current thread.
+ * <p/>
+ * Statements are recorded between {@link #start()} and {@link #stop()} without going through logs.
+ */
+@Component
+public class SqlStatementRecorder implements StatementExecutionListener {
+
+    private final ThreadLocal<RecordedStatements> recording = new ThreadLocal<>();
+
+    @Inject
+    InstrumentedDataSource dataSource;
+
+    @PostConstruct
+    public void register() {
+        dataSource.addListener(this);
+    }
+
+    @PreDestroy
+    public void unregister() {
+        dataSource.removeListener(this);
+    }
+
+    /**
+     * Start recording on the current thread. Statements recorded before are discarded.
+     */
+    public void start() {
+        recording.set(new RecordedStatements());
+    }
+
+    /**
+     * Stop recording on the current thread and return the recorded statements.
+     */
+    public RecordedStatements stop() {
+        RecordedStatements statements = recording.get();
+        recording.remove();
+        if (statements == null) {
+            throw new IllegalStateException("Recording is not started.");
+        }
+        return statements;
+    }
+
+    @Override
+    public boolean isBindValuesRequired() {
+        return false;
+    }
+
+    @Override
+    public boolean isExecutionRequired(long elapsedNanos) {
+        return recording.get() != null;
+    }
+
+    @Override
+    public void onExecuted(StatementExecution execution) {
+        RecordedStatements statements = recording.get();
+        if (statements != null) {
+            statements.add(execution);
+        }
+    }
+
+}